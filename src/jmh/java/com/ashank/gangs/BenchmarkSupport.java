@@ -0,0 +1,109 @@
+package com.ashank.gangs;
+
+import com.ashank.gangs.data.GangMutation;
+import com.ashank.gangs.data.SQLiteStorage;
+import com.ashank.gangs.data.Storage;
+import com.ashank.gangs.data.StorageExecutor;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Runs plugin code outside a server: a mocked {@link JavaPlugin} with a real configuration,
+ * logger and a temporary data folder.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    public static JavaPlugin plugin(Path dataFolder, YamlConfiguration config) {
+        JavaPlugin plugin = Mockito.mock(JavaPlugin.class);
+        Mockito.when(plugin.getConfig()).thenReturn(config);
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        Mockito.when(plugin.getLogger()).thenReturn(Logger.getLogger("GangsBenchmark"));
+        return plugin;
+    }
+
+    public static YamlConfiguration sqliteConfig() {
+        YamlConfiguration config = new YamlConfiguration();
+        config.set("database.type", "sqlite");
+        config.set("database.sqlite.file", "gangs.db");
+        config.set("database.sqlite.wal", true);
+        config.set("database.sqlite.read-pool-size", 4);
+        config.set("database.uuid-format", "text");
+        return config;
+    }
+
+    /**
+     * Opens a fresh SQLite database in {@code dataFolder}, schema migrated.
+     */
+    public static SQLiteStorage openSqlite(Path dataFolder) {
+        SQLiteStorage storage = new SQLiteStorage(StorageExecutor.fromConfig(null));
+        storage.initialize(plugin(dataFolder, sqliteConfig())).join();
+        return storage;
+    }
+
+    /**
+     * Copies a bundled resource such as {@code messages.yml} into the data folder.
+     */
+    public static void copyResource(String name, Path dataFolder) throws IOException {
+        try (InputStream in = BenchmarkSupport.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("Missing resource " + name);
+            }
+            Files.copy(in, dataFolder.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Creates {@code gangCount} gangs with {@code membersPerGang} members each, leader included.
+     *
+     * @return the created gangs
+     */
+    public static List<Gang> seedGangs(Storage storage, int gangCount, int membersPerGang) {
+        List<Gang> gangs = new ArrayList<>(gangCount);
+        List<GangMutation> batch = new ArrayList<>();
+        for (int i = 0; i < gangCount; i++) {
+            UUID gangId = UUID.randomUUID();
+            GangMutation.CreateGang create = new GangMutation.CreateGang(gangId, "gang" + i, UUID.randomUUID(), "", i);
+            Gang gang = create.toGang();
+            batch.add(create);
+            for (int m = 1; m < membersPerGang; m++) {
+                UUID member = UUID.randomUUID();
+                gang.addMember(member);
+                batch.add(new GangMutation.AddMember(gangId, member));
+            }
+            gangs.add(gang);
+            if (batch.size() >= 5000) {
+                storage.applyMutations(batch).join();
+                batch = new ArrayList<>();
+            }
+        }
+        storage.applyMutations(batch).join();
+        return gangs;
+    }
+
+    public static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
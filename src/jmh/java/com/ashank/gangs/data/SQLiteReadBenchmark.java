@@ -0,0 +1,72 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.BenchmarkSupport;
+import com.ashank.gangs.Gang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups against a temporary SQLite database straight through {@link SQLiteStorage}, with
+ * no registry or cache in front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SQLiteReadBenchmark {
+
+    private static final int MEMBERS_PER_GANG = 5;
+
+    @Param({"100", "1000", "10000"})
+    public int gangCount;
+
+    private Path dataFolder;
+    private SQLiteStorage storage;
+    private UUID[] gangIds;
+    private UUID[] players;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataFolder = Files.createTempDirectory("gangs-bench");
+        storage = BenchmarkSupport.openSqlite(dataFolder);
+        List<Gang> gangs = BenchmarkSupport.seedGangs(storage, gangCount, MEMBERS_PER_GANG);
+        gangIds = gangs.stream().map(Gang::getGangId).toArray(UUID[]::new);
+        players = gangs.stream().flatMap(gang -> gang.getMemberUuids().stream()).toArray(UUID[]::new);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        BenchmarkSupport.deleteRecursively(dataFolder);
+    }
+
+    @Benchmark
+    public Optional<UUID> getPlayerGangId() {
+        return storage.getPlayerGangId(players[ThreadLocalRandom.current().nextInt(players.length)]).join();
+    }
+
+    @Benchmark
+    public Optional<Gang> getGangById() {
+        return storage.getGangById(gangIds[ThreadLocalRandom.current().nextInt(gangIds.length)]).join();
+    }
+
+    @Benchmark
+    public List<Gang> getAllGangs() {
+        return storage.getAllGangs().join();
+    }
+}
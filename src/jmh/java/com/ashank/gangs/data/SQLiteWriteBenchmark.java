@@ -0,0 +1,80 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.BenchmarkSupport;
+import com.ashank.gangs.Gang;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes against a temporary SQLite database straight through {@link SQLiteStorage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SQLiteWriteBenchmark {
+
+    private static final int EXPIRED_INVITES = 100;
+
+    private final AtomicLong names = new AtomicLong();
+    private Path dataFolder;
+    private SQLiteStorage storage;
+    private UUID invitingGang;
+
+    @Setup
+    public void setUp() throws IOException {
+        dataFolder = Files.createTempDirectory("gangs-bench");
+        storage = BenchmarkSupport.openSqlite(dataFolder);
+        invitingGang = BenchmarkSupport.seedGangs(storage, 1, 1).get(0).getGangId();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        BenchmarkSupport.deleteRecursively(dataFolder);
+    }
+
+    /**
+     * Expired invites for {@link #removeExpiredInvites}, written before each call. The
+     * inserts take longer than the delete, but JMH leaves them out of the measurement.
+     */
+    @State(Scope.Thread)
+    public static class ExpiredInvites {
+        @Setup(Level.Invocation)
+        public void insert(SQLiteWriteBenchmark benchmark) {
+            for (int i = 0; i < EXPIRED_INVITES; i++) {
+                benchmark.storage.addInvite(new PendingInvite(UUID.randomUUID(), benchmark.invitingGang, UUID.randomUUID(), i)).join();
+            }
+        }
+    }
+
+    @Benchmark
+    public Void createGangAndAddMember() {
+        UUID leader = UUID.randomUUID();
+        Set<UUID> members = new HashSet<>();
+        members.add(leader);
+        Gang gang = new Gang(UUID.randomUUID(), "bench" + names.incrementAndGet(), leader, members, "");
+        storage.createGang(gang).join();
+        return storage.addGangMember(gang.getGangId(), UUID.randomUUID()).join();
+    }
+
+    @Benchmark
+    public Integer removeExpiredInvites(ExpiredInvites invites) {
+        return storage.removeExpiredInvites(System.currentTimeMillis()).join();
+    }
+}
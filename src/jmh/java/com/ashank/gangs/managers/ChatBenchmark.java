@@ -0,0 +1,80 @@
+package com.ashank.gangs.managers;
+
+import com.ashank.gangs.BenchmarkSupport;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting done for every gang chat message and every message sent from
+ * {@code messages.yml}. Delivering gang chat needs a running server, so only the rendering
+ * that {@link GangAudienceManager#sendGangChatMessage} does before it is measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatBenchmark {
+
+    // Same as the default in GangAudienceManager and messages.yml
+    private static final String FORMAT = "<dark_aqua>[Gang] </dark_aqua><aqua><player></aqua><gray>: </gray><message>";
+    private static final String PLAYER = "Notch";
+    private static final String MESSAGE = "anyone up for a raid tonight? meet at spawn <3";
+
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+    private ChatTemplate template;
+    private Path dataFolder;
+    private Messages messages;
+    private Map<String, String> placeholders;
+
+    @Setup
+    public void setUp() throws IOException {
+        template = new ChatTemplate(miniMessage, FORMAT);
+        dataFolder = Files.createTempDirectory("gangs-bench");
+        BenchmarkSupport.copyResource("messages.yml", dataFolder);
+        messages = new Messages(BenchmarkSupport.plugin(dataFolder, new YamlConfiguration()));
+        placeholders = Map.of("gang", "Raiders", "leader", PLAYER);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        BenchmarkSupport.deleteRecursively(dataFolder);
+    }
+
+    @Benchmark
+    public Component chatTemplate() {
+        return template.render(PLAYER, MESSAGE);
+    }
+
+    /**
+     * What gang chat did before {@link ChatTemplate}: parse the format for every message.
+     */
+    @Benchmark
+    public Component chatDeserialize() {
+        return miniMessage.deserialize(FORMAT, Placeholder.unparsed("player", PLAYER), Placeholder.unparsed("message", MESSAGE));
+    }
+
+    @Benchmark
+    public String messagesGet() {
+        return messages.get("accept_success", placeholders);
+    }
+
+    @Benchmark
+    public Component messagesGetAndDeserialize() {
+        return miniMessage.deserialize(messages.get("accept_success", placeholders));
+    }
+}
@@ -0,0 +1,23 @@
+package com.ashank.gangs.data;
+
+/**
+ * What a simulated player can do, keyed as in the {@code mix} section of {@code loadtest.yml}.
+ */
+enum LoadOperation {
+    CREATE("create"),
+    INVITE("invite"),
+    ACCEPT("accept"),
+    CHAT("chat"),
+    KICK("kick"),
+    DISBAND("disband");
+
+    private final String key;
+
+    LoadOperation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+}
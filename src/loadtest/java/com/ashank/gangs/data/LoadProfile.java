@@ -0,0 +1,50 @@
+package com.ashank.gangs.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.yml}.
+ *
+ * @param rate operations per second across all threads, or 0 for as fast as possible
+ */
+record LoadProfile(
+        int players,
+        int threads,
+        double rate,
+        long warmupSeconds,
+        long durationSeconds,
+        long reportIntervalSeconds,
+        Path dataFolder,
+        boolean fresh,
+        Map<LoadOperation, Integer> mix
+) {
+
+    static LoadProfile fromConfig(ConfigurationSection config) {
+        int threads = Math.max(1, config.getInt("threads", 16));
+        Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        ConfigurationSection mixConfig = config.getConfigurationSection("mix");
+        for (LoadOperation operation : LoadOperation.values()) {
+            int weight = mixConfig != null ? mixConfig.getInt(operation.key(), 0) : 0;
+            if (weight > 0) {
+                mix.put(operation, weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("mix must give at least one operation a weight above 0");
+        }
+        return new LoadProfile(
+                Math.max(threads, config.getInt("players", 2000)),
+                threads,
+                Math.max(0, config.getDouble("rate", 500)),
+                Math.max(0, config.getLong("warmup-seconds", 10)),
+                Math.max(1, config.getLong("duration-seconds", 60)),
+                Math.max(1, config.getLong("report-interval-seconds", 10)),
+                Path.of(config.getString("data-folder", "build/loadtest")),
+                config.getBoolean("fresh", true),
+                mix);
+    }
+}
@@ -0,0 +1,170 @@
+package com.ashank.gangs.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless load test of the storage stack the plugin would build from the {@code database}
+ * section of a profile. Simulated players create gangs, invite, accept, chat, kick and
+ * disband at the profile's rate and mix; at the end it reports the throughput and latency
+ * percentiles of those operations, the same numbers per storage call and layer, and the
+ * time spent waiting for database connections or the SQLite writer.
+ * <p>
+ * Run with {@code ./gradlew loadtest}, or {@code ./gradlew loadtest -Pprofile=<file>} for
+ * a profile other than the bundled {@code loadtest.yml}.
+ */
+public final class LoadTest {
+
+    private static final Logger LOGGER = Logger.getLogger("GangsLoadTest");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        YamlConfiguration config = args.length > 0
+                ? YamlConfiguration.loadConfiguration(new File(args[0]))
+                : bundledProfile();
+        LoadProfile profile = LoadProfile.fromConfig(config);
+        ConfigurationSection database = config.getConfigurationSection("database");
+        if (database == null) {
+            throw new IllegalArgumentException("Profile has no database section");
+        }
+
+        Files.createDirectories(profile.dataFolder());
+        if (profile.fresh() && "sqlite".equalsIgnoreCase(database.getString("type", "sqlite"))) {
+            String file = database.getString("sqlite.file", "gangs.db");
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(profile.dataFolder().resolve(file + suffix));
+            }
+        }
+
+        JavaPlugin plugin = plugin(profile.dataFolder(), config);
+        NotifyingStorage storage = StorageFactory.createStorage(plugin);
+        storage.initialize(plugin).join();
+        try {
+            run(profile, storage);
+        } finally {
+            storage.close();
+        }
+    }
+
+    private static void run(LoadProfile profile, Storage storage) throws InterruptedException {
+        StorageMetrics storageMetrics = ForwardingStorage.find(storage, InstrumentedStorage.class)
+                .map(InstrumentedStorage::getMetrics)
+                .orElse(null);
+        if (storageMetrics == null) {
+            LOGGER.warning("database.metrics is disabled; only player operations will be reported");
+        }
+
+        AtomicReference<StorageMetrics> operations = new AtomicReference<>(new StorageMetrics(0));
+        LongAdder completed = new LongAdder();
+        String runId = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36), 36);
+        double ratePerThread = profile.rate() / profile.threads();
+
+        List<LoadWorker> workers = new ArrayList<>(profile.threads());
+        List<Thread> threads = new ArrayList<>(profile.threads());
+        for (int i = 0; i < profile.threads(); i++) {
+            List<UUID> players = new ArrayList<>();
+            for (int p = i; p < profile.players(); p += profile.threads()) {
+                players.add(UUID.randomUUID());
+            }
+            LoadWorker worker = new LoadWorker(storage, players, profile.mix(), ratePerThread, operations, completed,
+                    LOGGER, "lt" + runId + "-" + i + "-", ThreadLocalRandom.current().nextLong());
+            workers.add(worker);
+            Thread thread = new Thread(worker, "Gangs Load " + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+
+        LOGGER.info(String.format("%d players on %d threads, %s, mix %s",
+                profile.players(), profile.threads(),
+                profile.rate() > 0 ? String.format("%.0f operations/s", profile.rate()) : "no rate limit",
+                profile.mix()));
+        threads.forEach(Thread::start);
+
+        if (profile.warmupSeconds() > 0) {
+            LOGGER.info("Warming up for " + profile.warmupSeconds() + "s");
+            TimeUnit.SECONDS.sleep(profile.warmupSeconds());
+            operations.set(new StorageMetrics(0));
+            if (storageMetrics != null) {
+                // Starts the next interval of the storage metrics, so the report leaves out the warmup
+                Logger discard = Logger.getAnonymousLogger();
+                discard.setLevel(Level.OFF);
+                storageMetrics.logSummary(discard);
+            }
+        }
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(profile.durationSeconds());
+        long completedAtStart = completed.sum();
+        long lastCompleted = completedAtStart;
+        long lastReport = start;
+        while (System.nanoTime() < end) {
+            long next = Math.min(end, lastReport + TimeUnit.SECONDS.toNanos(profile.reportIntervalSeconds()));
+            TimeUnit.NANOSECONDS.sleep(Math.max(0, next - System.nanoTime()));
+            long now = System.nanoTime();
+            long done = completed.sum();
+            LOGGER.info(String.format("%ds: %.1f operations/s",
+                    TimeUnit.NANOSECONDS.toSeconds(now - start), (done - lastCompleted) * 1e9 / (now - lastReport)));
+            lastCompleted = done;
+            lastReport = now;
+        }
+
+        workers.forEach(LoadWorker::stop);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        LOGGER.info(String.format("Completed %d operations in %ds, %.1f/s",
+                completed.sum() - completedAtStart, TimeUnit.NANOSECONDS.toSeconds(elapsed),
+                (completed.sum() - completedAtStart) * 1e9 / elapsed));
+        LOGGER.info("Player operations (latency from the scheduled start):");
+        for (String line : operations.get().describe()) {
+            LOGGER.info("  " + line);
+        }
+        if (storageMetrics != null) {
+            storageMetrics.logSummary(LOGGER);
+        }
+    }
+
+    private static YamlConfiguration bundledProfile() throws IOException {
+        try (InputStream in = LoadTest.class.getClassLoader().getResourceAsStream("loadtest.yml")) {
+            if (in == null) {
+                throw new IOException("Missing resource loadtest.yml");
+            }
+            return YamlConfiguration.loadConfiguration(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A stand-in for the plugin with just what storage uses: the profile as its
+     * configuration, a data folder and a logger.
+     */
+    private static JavaPlugin plugin(Path dataFolder, YamlConfiguration config) {
+        JavaPlugin plugin = Mockito.mock(JavaPlugin.class);
+        Mockito.when(plugin.getConfig()).thenReturn(config);
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        Mockito.when(plugin.getLogger()).thenReturn(LOGGER);
+        return plugin;
+    }
+}
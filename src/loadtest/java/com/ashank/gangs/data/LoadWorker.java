@@ -0,0 +1,286 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Plays a slice of the simulated players against the storage, one operation at a time.
+ * The worker keeps its own view of who is in which gang, so it only issues operations a
+ * real player could have made; slices never overlap, so workers never need to coordinate.
+ * <p>
+ * When a rate is set, operations are started on a fixed schedule and their latency is
+ * taken from the scheduled start. A storage that falls behind therefore shows up as
+ * growing latency rather than as a quietly lower request rate.
+ */
+final class LoadWorker implements Runnable {
+
+    private record SimulatedGang(UUID gangId, UUID leader, RandomPool<UUID> members) {
+    }
+
+    private record Invite(UUID player, SimulatedGang gang) {
+    }
+
+    private final Storage storage;
+    private final AtomicReference<StorageMetrics> metrics;
+    private final LongAdder completed;
+    private final Logger logger;
+    private final String namePrefix;
+    private final LoadOperation[] mix;
+    private final int[] cumulativeWeights;
+    private final long intervalNanos;
+    private final SplittableRandom random;
+
+    private final RandomPool<UUID> gangless = new RandomPool<>();
+    private final RandomPool<SimulatedGang> gangs = new RandomPool<>();
+    private final RandomPool<Invite> invites = new RandomPool<>();
+    private long gangNames;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param metrics where operation latencies are recorded; swapped out after the warmup
+     * @param namePrefix makes gang names unique across workers and runs
+     * @param ratePerSecond operations per second for this worker, or 0 for no limit
+     */
+    LoadWorker(Storage storage, List<UUID> players, Map<LoadOperation, Integer> mix, double ratePerSecond,
+               AtomicReference<StorageMetrics> metrics, LongAdder completed, Logger logger, String namePrefix, long seed) {
+        this.storage = storage;
+        this.metrics = metrics;
+        this.completed = completed;
+        this.logger = logger;
+        this.namePrefix = namePrefix;
+        this.mix = mix.keySet().toArray(LoadOperation[]::new);
+        this.cumulativeWeights = new int[this.mix.length];
+        int total = 0;
+        for (int i = 0; i < this.mix.length; i++) {
+            total += mix.get(this.mix[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.intervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+        this.random = new SplittableRandom(seed);
+        players.forEach(gangless::add);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        long scheduled = System.nanoTime();
+        while (running) {
+            long start;
+            if (intervalNanos > 0) {
+                scheduled += intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start = scheduled;
+            } else {
+                start = System.nanoTime();
+            }
+            if (!running) {
+                return;
+            }
+            step(start);
+        }
+    }
+
+    private void step(long start) {
+        LoadOperation operation = pick();
+        String outcome;
+        boolean failed = false;
+        try {
+            outcome = perform(operation);
+            if (outcome == null) {
+                // Nobody in this slice can do that right now; players without a gang make one
+                operation = gangless.isEmpty() ? LoadOperation.DISBAND : LoadOperation.CREATE;
+                outcome = perform(operation);
+            }
+        } catch (RuntimeException e) {
+            outcome = null;
+            failed = true;
+            logger.log(Level.FINE, "Load test " + operation.key() + " failed", e);
+        }
+        String name = outcome == null || outcome.isEmpty() ? operation.key() : operation.key() + " " + outcome;
+        metrics.get().record(name, System.nanoTime() - start, failed);
+        completed.increment();
+    }
+
+    private LoadOperation pick() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return mix[i];
+            }
+        }
+        return mix[mix.length - 1];
+    }
+
+    /**
+     * Runs the operation the way the matching command does.
+     *
+     * @return the outcome worth reporting separately, {@code ""} if there is none, or
+     * {@code null} if no player in this slice could perform the operation
+     */
+    private String perform(LoadOperation operation) {
+        return switch (operation) {
+            case CREATE -> create();
+            case INVITE -> invite();
+            case ACCEPT -> accept();
+            case CHAT -> chat();
+            case KICK -> kick();
+            case DISBAND -> disband();
+        };
+    }
+
+    private String create() {
+        if (gangless.isEmpty()) {
+            return null;
+        }
+        UUID leader = gangless.pick(random);
+        String name = namePrefix + (gangNames++);
+        if (storage.getPlayerGangId(leader).join().isPresent() || storage.isGangNameTaken(name).join()) {
+            return "rejected";
+        }
+        Set<UUID> members = new HashSet<>();
+        members.add(leader);
+        UUID gangId = UUID.randomUUID();
+        storage.createGang(new Gang(gangId, name, leader, members, "")).join();
+        SimulatedGang gang = new SimulatedGang(gangId, leader, new RandomPool<>());
+        gangless.remove(leader);
+        gangs.add(gang);
+        return "";
+    }
+
+    private String invite() {
+        if (gangs.isEmpty() || gangless.isEmpty()) {
+            return null;
+        }
+        SimulatedGang gang = gangs.pick(random);
+        UUID target = gangless.pick(random);
+        if (storage.getPlayerGangId(target).join().isPresent()) {
+            return "rejected";
+        }
+        PendingInvite invite = new PendingInvite(target, gang.gangId(), gang.leader(), System.currentTimeMillis());
+        storage.addInvite(invite).join();
+        invites.add(new Invite(target, gang));
+        return "";
+    }
+
+    private String accept() {
+        if (invites.isEmpty()) {
+            return null;
+        }
+        Invite invite = invites.pick(random);
+        invites.remove(invite);
+        AcceptInviteResult result = storage.acceptInvite(invite.player(), invite.gang().gangId()).join();
+        if (result.status() == AcceptInviteResult.Status.ACCEPTED) {
+            gangless.remove(invite.player());
+            invite.gang().members().add(invite.player());
+        }
+        return result.status().name();
+    }
+
+    /**
+     * Gang chat resolves the sender's gang from memory; this is the lookup it falls back to
+     * when the sender's gang is not loaded.
+     */
+    private String chat() {
+        if (gangs.isEmpty()) {
+            return null;
+        }
+        SimulatedGang gang = gangs.pick(random);
+        UUID sender = gang.members().isEmpty() || random.nextInt(gang.members().size() + 1) == 0
+                ? gang.leader() : gang.members().pick(random);
+        storage.getPlayerGangAsync(sender).join();
+        return "";
+    }
+
+    private String kick() {
+        // A few tries at finding a gang with someone to kick
+        SimulatedGang gang = null;
+        for (int i = 0; i < 4 && gang == null && !gangs.isEmpty(); i++) {
+            SimulatedGang candidate = gangs.pick(random);
+            if (!candidate.members().isEmpty()) {
+                gang = candidate;
+            }
+        }
+        if (gang == null) {
+            return null;
+        }
+        UUID target = gang.members().pick(random);
+        KickResult result = storage.kickMember(gang.gangId(), gang.leader(), target).join();
+        if (result == KickResult.KICKED) {
+            gang.members().remove(target);
+            gangless.add(target);
+        }
+        return result.name();
+    }
+
+    private String disband() {
+        if (gangs.isEmpty()) {
+            return null;
+        }
+        SimulatedGang gang = gangs.pick(random);
+        storage.disbandGang(gang.gangId()).join();
+        gangs.remove(gang);
+        gangless.add(gang.leader());
+        for (UUID member : gang.members().items) {
+            gangless.add(member);
+        }
+        return "";
+    }
+
+    /**
+     * A set with constant-time add, remove and uniform random pick.
+     */
+    private static final class RandomPool<T> {
+        private final List<T> items = new ArrayList<>();
+        private final Map<T, Integer> indexes = new HashMap<>();
+
+        void add(T item) {
+            if (indexes.putIfAbsent(item, items.size()) == null) {
+                items.add(item);
+            }
+        }
+
+        void remove(T item) {
+            Integer index = indexes.remove(item);
+            if (index == null) {
+                return;
+            }
+            T last = items.remove(items.size() - 1);
+            if (index < items.size()) {
+                items.set(index, last);
+                indexes.put(last, index);
+            }
+        }
+
+        T pick(SplittableRandom random) {
+            return items.get(random.nextInt(items.size()));
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        boolean isEmpty() {
+            return items.isEmpty();
+        }
+    }
+}
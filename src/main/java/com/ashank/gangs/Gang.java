@@ -1,5 +1,7 @@
 package com.ashank.gangs;
 
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
@@ -36,6 +38,13 @@ public class Gang {
         this.name = Objects.requireNonNull(name, "name cannot be null");
     }
 
+    /**
+     * Case-folded form of a gang name, used for uniqueness checks and lookups.
+     */
+    public static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
     public UUID getLeaderUuid() {
         return leaderUuid;
     }
@@ -63,6 +72,13 @@ public class Gang {
         return this.memberUuids.remove(memberUuid);
     }
 
+    /**
+     * @return a copy with its own member set, safe to change without affecting this gang
+     */
+    public Gang copy() {
+        return new Gang(gangId, name, leaderUuid, new HashSet<>(memberUuids), description);
+    }
+
     public String getDescription() {
         return description;
     }
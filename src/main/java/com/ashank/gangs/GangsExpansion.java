@@ -1,18 +1,78 @@
 package com.ashank.gangs;
 
+import com.ashank.gangs.data.ForwardingStorage;
+import com.ashank.gangs.data.GangChangeListener;
+import com.ashank.gangs.data.NotifyingStorage;
+import com.ashank.gangs.managers.GangAudienceManager;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import com.ashank.gangs.data.Storage;
-import java.util.concurrent.CompletableFuture;
 
-public class GangsExpansion extends PlaceholderExpansion {
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * PlaceholderAPI expansion for {@code %gang_*%}. Which gang an online player is in, and how
+ * many of its members are online, come from the {@link GangAudienceManager} index. This
+ * expansion only holds what the placeholders show for each gang with an online member,
+ * loaded once when the gang comes online and kept current from gang change events. A
+ * request is a few map lookups and field reads, and never waits on storage. Offline players
+ * are answered as if they had no gang.
+ */
+public class GangsExpansion extends PlaceholderExpansion implements GangChangeListener, GangAudienceManager.OnlineGangListener {
+
+    /**
+     * What the placeholders show for one gang. Held while the gang has an online member;
+     * {@code name} stays null until the gang has been loaded.
+     */
+    private static final class GangState {
+        private volatile String name;
+        private volatile String description;
+        private volatile UUID leaderUuid;
+        private volatile String leaderName;
+        private final Set<UUID> members = ConcurrentHashMap.newKeySet();
+
+        private void load(Gang gang) {
+            update(gang);
+            members.addAll(gang.getMemberUuids());
+        }
+
+        private void update(Gang gang) {
+            description = gang.getDescription() != null ? gang.getDescription() : "";
+            setLeader(gang.getLeaderUuid());
+            name = gang.getName();
+        }
+
+        private void setLeader(UUID leaderUuid) {
+            if (!leaderUuid.equals(this.leaderUuid)) {
+                String resolved = Bukkit.getOfflinePlayer(leaderUuid).getName();
+                this.leaderName = resolved != null ? resolved : leaderUuid.toString();
+                this.leaderUuid = leaderUuid;
+            }
+        }
+    }
+
     private final GangsPlugin plugin;
     private final Storage storageManager;
+    private final GangAudienceManager audienceManager;
+    private final String noGangValue;
+    private final String leaderRankValue;
+    private final String memberRankValue;
+    private final Map<UUID, GangState> gangs = new ConcurrentHashMap<>();
 
     public GangsExpansion(GangsPlugin plugin) {
         this.plugin = plugin;
         this.storageManager = plugin.getStorage();
+        this.audienceManager = plugin.getAudienceManager();
+        this.noGangValue = plugin.getConfig().getString("no-gang-value", "None");
+        this.leaderRankValue = plugin.getConfig().getString("rank-leader-value", "Leader");
+        this.memberRankValue = plugin.getConfig().getString("rank-member-value", "Member");
     }
 
     @Override
@@ -35,27 +95,110 @@ public class GangsExpansion extends PlaceholderExpansion {
         return true;
     }
 
+    @Override
+    public boolean register() {
+        boolean registered = super.register();
+        if (registered) {
+            ForwardingStorage.find(storageManager, NotifyingStorage.class).ifPresent(storage -> storage.addListener(this));
+            audienceManager.addOnlineGangListener(this);
+            // Gangs that came online before this expansion was registered
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                UUID gangId = audienceManager.getOnlineGangId(online.getUniqueId());
+                if (gangId != null) {
+                    gangOnline(gangId);
+                }
+            }
+        }
+        return registered;
+    }
+
     @Override
     public String onRequest(OfflinePlayer player, @NotNull String params) {
-        if (player == null || !player.hasPlayedBefore()) {
+        if (player == null) {
             return "";
         }
-        if (params.equalsIgnoreCase("name")) {
+        UUID gangId = audienceManager.getOnlineGangId(player.getUniqueId());
+        GangState gang = gangId != null ? gangs.get(gangId) : null;
+        boolean inGang = gang != null && gang.name != null;
+        return switch (params) {
+            case "name" -> inGang ? gang.name : noGangValue;
+            case "members" -> String.valueOf(inGang ? gang.members.size() : 0);
+            case "online" -> String.valueOf(inGang ? audienceManager.getOnlineCount(gangId) : 0);
+            case "leader" -> inGang ? gang.leaderName : "";
+            case "description" -> inGang ? gang.description : "";
+            case "is_leader" -> String.valueOf(inGang && player.getUniqueId().equals(gang.leaderUuid));
+            case "rank" -> !inGang ? noGangValue : player.getUniqueId().equals(gang.leaderUuid) ? leaderRankValue : memberRankValue;
+            default -> null;
+        };
+    }
 
+    /**
+     * Starts holding the gang and loads it. A load that finishes after the gang went offline
+     * again is dropped.
+     */
+    @Override
+    public void gangOnline(UUID gangId) {
+        if (gangs.putIfAbsent(gangId, new GangState()) != null) {
+            return;
+        }
+        storageManager.getGangById(gangId)
+                .thenAccept(gang -> gang.ifPresent(loaded -> gangs.computeIfPresent(gangId, (id, state) -> {
+                    state.load(loaded);
+                    return state;
+                })))
+                .exceptionally(ex -> {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load gang placeholders for " + gangId, ex);
+                    return null;
+                });
+    }
 
-            try {
-                CompletableFuture<java.util.Optional<Gang>> future = storageManager.getPlayerGangAsync(player.getUniqueId());
-                java.util.Optional<Gang> gangOpt = future.get();
-                if (gangOpt.isPresent()) {
-                    return gangOpt.get().getName();
-                } else {
-                    return plugin.getConfig().getString("placeholder.no_gang", "None");
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to fetch gang name for placeholder: " + e.getMessage());
-                return plugin.getConfig().getString("placeholder.no_gang", "None");
-            }
+    @Override
+    public void gangOffline(UUID gangId) {
+        gangs.remove(gangId);
+    }
+
+    @Override
+    public void gangCreated(Gang gang) {
+        gangs.computeIfPresent(gang.getGangId(), (id, state) -> {
+            state.load(gang);
+            return state;
+        });
+    }
+
+    @Override
+    public void gangUpdated(Gang gang) {
+        GangState state = gangs.get(gang.getGangId());
+        if (state != null && state.name != null) {
+            state.update(gang);
+        }
+    }
+
+    @Override
+    public void gangRenamed(UUID gangId, String newName) {
+        GangState state = gangs.get(gangId);
+        if (state != null && state.name != null) {
+            state.name = newName;
+        }
+    }
+
+    @Override
+    public void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        gangs.remove(gangId);
+    }
+
+    @Override
+    public void memberAdded(UUID gangId, UUID playerUuid) {
+        GangState state = gangs.get(gangId);
+        if (state != null) {
+            state.members.add(playerUuid);
+        }
+    }
+
+    @Override
+    public void memberRemoved(UUID gangId, UUID playerUuid) {
+        GangState state = gangs.get(gangId);
+        if (state != null) {
+            state.members.remove(playerUuid);
         }
-        return null;
     }
-} 
\ No newline at end of file
+}
@@ -1,33 +1,28 @@
 package com.ashank.gangs;
 
+import com.ashank.gangs.data.InviteStore;
 import com.ashank.gangs.data.Storage;
+import com.ashank.gangs.managers.ConfirmationManager;
 import com.ashank.gangs.managers.GangAudienceManager;
+import com.ashank.gangs.managers.GangNameIndex;
 import com.ashank.gangs.managers.Messages;
+import com.ashank.gangs.managers.TimingWheel;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 
 public class GangsPlugin extends JavaPlugin {
 
     private Storage storage;
-    private BukkitTask inviteCleanupTask;
+    private InviteStore inviteStore;
+    private TimingWheel expiryWheel;
+    private ConfirmationManager confirmations;
     private Messages messages;
     private GangAudienceManager audienceManager;
+    private final GangNameIndex gangNameIndex = new GangNameIndex();
 
     @Override
     public void onEnable() {
         
         getLogger().info("Gangs plugin enabling process started (bootstrapper handles registration).");
-
-       
-        try (java.io.InputStream test = getClass().getClassLoader().getResourceAsStream("db/migration/V1__Init.sql")) {
-            if (test != null) {
-                getLogger().info("DEBUG: Migration resource V1__Init.sql FOUND in classpath.");
-            } else {
-                getLogger().warning("DEBUG: Migration resource V1__Init.sql NOT FOUND in classpath!");
-            }
-        } catch (Exception e) {
-            getLogger().warning("DEBUG: Error checking migration resource: " + e.getMessage());
-        }
     }
     
     /**
@@ -45,9 +40,14 @@ public class GangsPlugin extends JavaPlugin {
     @Override
     public void onDisable() {
 
-        if (inviteCleanupTask != null && !inviteCleanupTask.isCancelled()) {
-            inviteCleanupTask.cancel();
-            getLogger().info("Cancelled expired invite cleanup task.");
+        if (inviteStore != null) {
+            inviteStore.close();
+        }
+        if (confirmations != null) {
+            confirmations.clear();
+        }
+        if (expiryWheel != null) {
+            expiryWheel.close();
         }
 
         if (audienceManager != null) {
@@ -70,12 +70,28 @@ public class GangsPlugin extends JavaPlugin {
         this.storage = storage;
     }
 
-    public BukkitTask getInviteCleanupTask() {
-        return inviteCleanupTask;
+    public InviteStore getInviteStore() {
+        return inviteStore;
+    }
+
+    public void setInviteStore(InviteStore inviteStore) {
+        this.inviteStore = inviteStore;
+    }
+
+    public TimingWheel getExpiryWheel() {
+        return expiryWheel;
+    }
+
+    public void setExpiryWheel(TimingWheel expiryWheel) {
+        this.expiryWheel = expiryWheel;
     }
 
-    public void setInviteCleanupTask(BukkitTask inviteCleanupTask) {
-        this.inviteCleanupTask = inviteCleanupTask;
+    public ConfirmationManager getConfirmations() {
+        return confirmations;
+    }
+
+    public void setConfirmations(ConfirmationManager confirmations) {
+        this.confirmations = confirmations;
     }
 
     public Messages getMessages() {
@@ -89,4 +105,8 @@ public class GangsPlugin extends JavaPlugin {
     public GangAudienceManager getAudienceManager() {
         return audienceManager;
     }
+
+    public GangNameIndex getGangNameIndex() {
+        return gangNameIndex;
+    }
 } 
\ No newline at end of file
@@ -19,35 +19,60 @@ public class GangsPluginBootstrap implements PluginBootstrap {
         GangsPlugin plugin = new GangsPlugin();
         plugin.saveDefaultConfig();
         plugin.reloadConfig();
-        plugin.setStorage(com.ashank.gangs.data.StorageFactory.createStorage(plugin));
+        com.ashank.gangs.data.NotifyingStorage storage = com.ashank.gangs.data.StorageFactory.createStorage(plugin);
+        storage.addListener(plugin.getGangNameIndex());
+        com.ashank.gangs.data.GangMapExporter mapExporter = com.ashank.gangs.data.GangMapExporter.fromConfig(
+                plugin, storage, plugin.getConfig().getConfigurationSection("database.export"));
+        if (mapExporter != null) {
+            storage.addListener(mapExporter);
+        }
+        plugin.setStorage(storage);
+        com.ashank.gangs.managers.TimingWheel expiryWheel = new com.ashank.gangs.managers.TimingWheel(
+                "Gangs Expiry", 100, java.util.concurrent.TimeUnit.MILLISECONDS, 512, plugin.getLogger());
+        plugin.setExpiryWheel(expiryWheel);
+        long inviteExpirySeconds = plugin.getConfig().getLong("gang.invites.expiry-seconds", 3600);
+        boolean inviteWriteThrough = plugin.getConfig().getBoolean("gang.invites.write-through", false);
+        com.ashank.gangs.data.MemoryInviteStore inviteStore = new com.ashank.gangs.data.MemoryInviteStore(
+                java.util.concurrent.TimeUnit.SECONDS.toMillis(inviteExpirySeconds), expiryWheel, inviteWriteThrough ? storage : null, plugin.getLogger());
+        storage.addListener(inviteStore);
+        plugin.setInviteStore(inviteStore);
         plugin.setMessages(new com.ashank.gangs.managers.Messages(plugin));
+        long confirmationTimeoutSeconds = plugin.getConfig().getLong("gang.confirmations.timeout-seconds", 60);
+        com.ashank.gangs.managers.ConfirmationManager confirmations = new com.ashank.gangs.managers.ConfirmationManager(
+                plugin, expiryWheel, java.util.concurrent.TimeUnit.SECONDS.toMillis(confirmationTimeoutSeconds));
+        storage.addListener(confirmations);
+        plugin.setConfirmations(confirmations);
 
         plugin.getLifecycleManager().registerEventHandler(io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents.COMMANDS, event -> {
-            plugin.getStorage().initialize(plugin).thenRunAsync(() -> {
+            plugin.getStorage().initialize(plugin).thenCompose(v -> plugin.getInviteStore().initialize()).thenRunAsync(() -> {
                 plugin.getLogger().info("Storage initialized.");
+                plugin.getStorage().getAllGangs().thenAccept(gangs -> {
+                    plugin.getGangNameIndex().load(gangs);
+                    plugin.getLogger().info("Indexed " + gangs.size() + " gang names.");
+                });
                 
                
                 plugin.initAudienceManager();
                 plugin.getLogger().info("Audience manager initialized.");
                 
-                long inviteExpirySeconds = plugin.getConfig().getLong("gangs.invites.expiry-seconds", 3600);
-                long cleanupIntervalTicks = 20L * 60 * 5;
-                plugin.setInviteCleanupTask(plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, () -> {
-                    long expiryTimestamp = System.currentTimeMillis() - java.util.concurrent.TimeUnit.SECONDS.toMillis(inviteExpirySeconds);
-                    plugin.getStorage().removeExpiredInvites(expiryTimestamp)
-                        .thenAccept(removedCount -> {
-                            if (removedCount > 0) {
-                                plugin.getLogger().info("Removed " + removedCount + " expired gang invites.");
-                            }
-                        })
-                        .exceptionally(ex -> {
-                            plugin.getLogger().log(java.util.logging.Level.WARNING, "Error during expired invite cleanup task", ex);
-                            return null;
-                        });
-                }, cleanupIntervalTicks, cleanupIntervalTicks));
-                plugin.getLogger().info("Scheduled expired invite cleanup task.");
+                com.ashank.gangs.data.ForwardingStorage.find(plugin.getStorage(), com.ashank.gangs.data.InstrumentedStorage.class)
+                    .map(com.ashank.gangs.data.InstrumentedStorage::getMetrics)
+                    .filter(metrics -> metrics.getLogIntervalMinutes() > 0)
+                    .ifPresent(metrics -> {
+                        long intervalTicks = 20L * 60 * metrics.getLogIntervalMinutes();
+                        plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin,
+                            () -> metrics.logSummary(plugin.getLogger()), intervalTicks, intervalTicks);
+                    });
+                if (mapExporter != null) {
+                    long exportTicks = 20L * mapExporter.getIntervalSeconds();
+                    plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin,
+                        mapExporter::exportIfChanged, 0L, exportTicks);
+                }
                 plugin.getServer().getPluginManager().registerEvents(
                     new com.ashank.gangs.commands.GangChatCommand.GangChatListener(plugin, plugin.getStorage()), plugin);
+                com.ashank.gangs.data.ForwardingStorage.find(plugin.getStorage(), com.ashank.gangs.data.CachingStorage.class)
+                    .ifPresent(cache -> plugin.getServer().getPluginManager().registerEvents(
+                        new com.ashank.gangs.data.CachingStorage.SessionListener(plugin, cache), plugin));
                 if (org.bukkit.Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
                     try {
                         Class<?> expansionClass = Class.forName("com.ashank.gangs.GangsExpansion");
@@ -70,7 +95,7 @@ public class GangsPluginBootstrap implements PluginBootstrap {
 
         plugin.getLifecycleManager().registerEventHandler(io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents.COMMANDS, event -> {
             event.registrar().register(com.ashank.gangs.commands.GangCommandTree.build(plugin), "gang", java.util.List.of("g"));
-            event.registrar().register(com.ashank.gangs.commands.sub.GcCommand.build(plugin).build(), "Gang chat command for your gang", java.util.List.of());
+            event.registrar().register(com.ashank.gangs.commands.GangCommandTree.traced(com.ashank.gangs.commands.sub.GcCommand.build(plugin).build()), "Gang chat command for your gang", java.util.List.of());
         });
         plugin.getLogger().info("Gangs plugin enabling process started.");
         return plugin;
@@ -3,6 +3,7 @@ package com.ashank.gangs.commands;
 import com.ashank.gangs.GangsPlugin;
 import com.ashank.gangs.commands.sub.AcceptCommand;
 import com.ashank.gangs.commands.sub.CreateCommand;
+import com.ashank.gangs.commands.sub.DebugCommand;
 import com.ashank.gangs.commands.sub.DescriptionCommand;
 import com.ashank.gangs.commands.sub.InfoCommand;
 import com.ashank.gangs.commands.sub.InviteCommand;
@@ -16,10 +17,17 @@ import com.ashank.gangs.commands.sub.ForceDisbandCommand;
 import com.ashank.gangs.commands.sub.ForceDescriptionCommand;
 import com.ashank.gangs.commands.sub.RenameCommand;
 import com.ashank.gangs.commands.sub.ForceRenameCommand;
+import com.ashank.gangs.jfr.CommandExecutionEvent;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 public final class GangCommandTree {
     
     private GangCommandTree() {
@@ -27,7 +35,7 @@ public final class GangCommandTree {
     }
 
     public static LiteralCommandNode<CommandSourceStack> build(GangsPlugin plugin) {
-        return LiteralArgumentBuilder
+        return traced(LiteralArgumentBuilder
             .<CommandSourceStack>literal("gang")
             .then(CreateCommand.build(plugin))
             .then(InviteCommand.build(plugin))
@@ -44,6 +52,78 @@ public final class GangCommandTree {
             .then(ForceDescriptionCommand.build(plugin))
             .then(RenameCommand.build(plugin))
             .then(ForceRenameCommand.build(plugin))
-            .build();
+            .then(DebugCommand.build(plugin))
+            .build());
+    }
+
+    /**
+     * Copies the tree with every command wrapped so that each run is recorded as a
+     * {@link CommandExecutionEvent}. Redirects within the tree point at the traced copies,
+     * except a redirect back to one of its own ancestors: that copy is not built yet, so such
+     * a loop continues through the original, untraced nodes.
+     */
+    public static LiteralCommandNode<CommandSourceStack> traced(LiteralCommandNode<CommandSourceStack> root) {
+        Map<CommandNode<CommandSourceStack>, String> paths = new IdentityHashMap<>();
+        collectPaths(root, root.getName(), paths);
+        return (LiteralCommandNode<CommandSourceStack>) traced(root, paths, new IdentityHashMap<>());
+    }
+
+    private static void collectPaths(CommandNode<CommandSourceStack> node, String path, Map<CommandNode<CommandSourceStack>, String> paths) {
+        if (paths.putIfAbsent(node, path) != null) {
+            return;
+        }
+        for (CommandNode<CommandSourceStack> child : node.getChildren()) {
+            String name = child instanceof LiteralCommandNode ? child.getName() : "<" + child.getName() + ">";
+            collectPaths(child, path + " " + name, paths);
+        }
+    }
+
+    /**
+     * @param copies traced copy of each node done so far; {@code null} while a node's own subtree is being copied
+     */
+    private static CommandNode<CommandSourceStack> traced(CommandNode<CommandSourceStack> node,
+                                                          Map<CommandNode<CommandSourceStack>, String> paths,
+                                                          Map<CommandNode<CommandSourceStack>, CommandNode<CommandSourceStack>> copies) {
+        if (copies.containsKey(node)) {
+            CommandNode<CommandSourceStack> copy = copies.get(node);
+            return copy != null ? copy : node;
+        }
+        copies.put(node, null);
+        ArgumentBuilder<CommandSourceStack, ?> builder = node.createBuilder();
+        Command<CommandSourceStack> command = node.getCommand();
+        if (command != null) {
+            builder.executes(traced(command, paths.get(node)));
+        }
+        CommandNode<CommandSourceStack> redirect = node.getRedirect();
+        if (redirect != null) {
+            // A redirecting node cannot have children of its own; targets outside this tree are left alone
+            if (paths.containsKey(redirect)) {
+                builder.forward(traced(redirect, paths, copies), node.getRedirectModifier(), node.isFork());
+            }
+        } else {
+            for (CommandNode<CommandSourceStack> child : node.getChildren()) {
+                builder.then(traced(child, paths, copies));
+            }
+        }
+        CommandNode<CommandSourceStack> copy = builder.build();
+        copies.put(node, copy);
+        return copy;
+    }
+
+    private static Command<CommandSourceStack> traced(Command<CommandSourceStack> command, String path) {
+        return context -> {
+            CommandExecutionEvent event = new CommandExecutionEvent();
+            event.begin();
+            try {
+                return command.run(context);
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.command = path;
+                    event.sender = context.getSource().getSender().getName();
+                    event.commit();
+                }
+            }
+        };
     }
 }
\ No newline at end of file
@@ -1,75 +1,158 @@
 package com.ashank.gangs.commands.sub;
 
+import com.ashank.gangs.Gang;
 import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.AcceptInviteResult;
+import com.ashank.gangs.data.InviteClaim;
+import com.ashank.gangs.data.PendingInvite;
 import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
+
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 
 public class AcceptCommand {
-    
+
+    /**
+     * Which gang the player is accepting. {@code gangId} is null when there is no invite to
+     * accept, or when {@code prompted} because the player was asked to pick one of several.
+     */
+    private record Target(UUID gangId, boolean prompted) {
+        private static final Target NO_INVITE = new Target(null, false);
+        private static final Target PROMPTED = new Target(null, true);
+
+        private static Target of(Optional<UUID> gangId) {
+            return gangId.map(id -> new Target(id, false)).orElse(NO_INVITE);
+        }
+    }
+
     public static LiteralArgumentBuilder<CommandSourceStack> build(GangsPlugin plugin) {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("accept")
                 .requires(source -> source.getSender() instanceof Player && source.getSender().hasPermission("gangs.player.accept"))
-                .executes(context -> {
-                    CommandSender sender = context.getSource().getSender();
-                    if (!(sender instanceof Player player)) {
-                        sender.sendMessage("Only players can use this command.");
-                        return Command.SINGLE_SUCCESS;
-                    }
-                    GangsPlugin pluginInstance = plugin;
-                    var storageManager = pluginInstance.getStorage();
-                    var messages = pluginInstance.getMessages();
-                    var miniMessage = net.kyori.adventure.text.minimessage.MiniMessage.miniMessage();
-                    UUID playerUuid = player.getUniqueId();
+                .executes(context -> executeAccept(context, plugin, null))
+                .then(RequiredArgumentBuilder.<CommandSourceStack, String>argument("gang", StringArgumentType.word())
+                        .suggests((context, builder) -> suggestInvitingGangs(context, builder, plugin))
+                        .executes(context -> executeAccept(context, plugin, context.getArgument("gang", String.class))));
+    }
 
-                    storageManager.getInvite(playerUuid).thenAcceptAsync(inviteOpt -> {
-                        if (inviteOpt.isEmpty()) {
-                            player.sendMessage(miniMessage.deserialize(messages.get("accept_no_invite")));
-                            return;
-                        }
-                        var invite = inviteOpt.get();
-                        storageManager.getPlayerGangAsync(playerUuid).thenAcceptAsync(currentGangOpt -> {
-                            if (currentGangOpt.isPresent()) {
-                                player.sendMessage(miniMessage.deserialize(messages.get("accept_already_in_gang")));
-                                return;
-                            }
-                            storageManager.getGangById(invite.gangId()).thenAccept(gangOpt -> {
-                                if (gangOpt.isEmpty()) {
-                                    player.sendMessage(miniMessage.deserialize(messages.get("error")));
-                                    return;
-                                }
-                                var gang = gangOpt.get();
-                                var leaderUuid = gang.getLeaderUuid();
-                                var leader = org.bukkit.Bukkit.getPlayer(leaderUuid);
-                                String leaderName = leader != null ? leader.getName() : leaderUuid.toString();
-                                java.util.Map<String, String> placeholders = new java.util.HashMap<>();
-                                placeholders.put("gang", gang.getName());
-                                placeholders.put("leader", leaderName);
-                                storageManager.addGangMember(invite.gangId(), playerUuid).thenCompose(v ->
-                                    storageManager.removeInvite(playerUuid)
-                                ).thenAccept(v -> {
-                                    player.sendMessage(miniMessage.deserialize(messages.get("accept_success", placeholders)));
-                                }).exceptionally(ex -> {
-                                    pluginInstance.getLogger().severe("Error accepting invite: " + ex.getMessage());
-                                    player.sendMessage(miniMessage.deserialize(messages.get("error")));
-                                    return null;
-                                });
-                            });
-                        }).exceptionally(ex -> {
-                            pluginInstance.getLogger().severe("Error checking current gang: " + ex.getMessage());
-                            player.sendMessage(miniMessage.deserialize(messages.get("error")));
-                            return null;
-                        });
-                    }).exceptionally(ex -> {
-                        pluginInstance.getLogger().severe("Error fetching invite: " + ex.getMessage());
-                        player.sendMessage(miniMessage.deserialize(messages.get("error")));
-                        return null;
-                    });
-                    return Command.SINGLE_SUCCESS;
+    private static CompletableFuture<Suggestions> suggestInvitingGangs(CommandContext<CommandSourceStack> context, SuggestionsBuilder builder, GangsPlugin plugin) {
+        if (!(context.getSource().getSender() instanceof Player player)) {
+            return builder.buildFuture();
+        }
+        String remaining = builder.getRemaining().toLowerCase();
+        return plugin.getInviteStore().getInvites(player.getUniqueId())
+                .thenCompose(invites -> invitingGangs(plugin, invites))
+                .thenApply(gangs -> {
+                    gangs.stream()
+                            .map(Gang::getName)
+                            .filter(name -> name.toLowerCase().startsWith(remaining))
+                            .forEach(builder::suggest);
+                    return builder.build();
                 });
     }
-}
\ No newline at end of file
+
+    private static int executeAccept(CommandContext<CommandSourceStack> context, GangsPlugin plugin, String gangName) {
+        CommandSender sender = context.getSource().getSender();
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("Only players can use this command.");
+            return Command.SINGLE_SUCCESS;
+        }
+        var messages = plugin.getMessages();
+        var miniMessage = MiniMessage.miniMessage();
+        UUID playerUuid = player.getUniqueId();
+
+        CompletableFuture<Target> target;
+        if (gangName != null) {
+            target = plugin.getStorage().getGangByName(gangName).thenApply(gang -> Target.of(gang.map(Gang::getGangId)));
+        } else {
+            target = plugin.getInviteStore().getInvites(playerUuid).thenCompose(invites -> {
+                if (invites.size() <= 1) {
+                    return CompletableFuture.completedFuture(Target.of(invites.stream().findFirst().map(PendingInvite::gangId)));
+                }
+                // Several gangs are asking; make the player pick one
+                return invitingGangs(plugin, invites).thenApply(gangs -> {
+                    String names = gangs.stream().map(Gang::getName).collect(Collectors.joining(", "));
+                    player.sendMessage(miniMessage.deserialize(messages.get("accept_choose_gang", java.util.Map.of("gangs", names))));
+                    return Target.PROMPTED;
+                });
+            });
+        }
+
+        target.thenCompose(chosen -> {
+            if (chosen.prompted()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (chosen.gangId() == null) {
+                player.sendMessage(miniMessage.deserialize(messages.get("accept_no_invite")));
+                return CompletableFuture.completedFuture(null);
+            }
+            return acceptInvite(plugin, player, chosen.gangId());
+        }).exceptionally(ex -> {
+            plugin.getLogger().severe("Error accepting invite: " + ex.getMessage());
+            player.sendMessage(miniMessage.deserialize(messages.get("error")));
+            return null;
+        });
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static CompletableFuture<Void> acceptInvite(GangsPlugin plugin, Player player, UUID gangId) {
+        var messages = plugin.getMessages();
+        var miniMessage = MiniMessage.miniMessage();
+        UUID playerUuid = player.getUniqueId();
+        var inviteStore = plugin.getInviteStore();
+        return inviteStore.claimInvite(playerUuid, gangId).thenCompose(claimed -> {
+            if (claimed.isEmpty()) {
+                player.sendMessage(miniMessage.deserialize(messages.get("accept_no_invite")));
+                return CompletableFuture.completedFuture(null);
+            }
+            InviteClaim claim = claimed.get();
+            return plugin.getStorage().acceptInvite(playerUuid, gangId).whenComplete((result, ex) -> {
+                // The player did not join, so hand back their invites; one to a gang that is gone is dropped
+                if (ex != null || result.status() == AcceptInviteResult.Status.ALREADY_IN_GANG) {
+                    inviteStore.restoreInvites(claim.withdrawn());
+                } else if (result.status() == AcceptInviteResult.Status.GANG_NOT_FOUND) {
+                    inviteStore.restoreInvites(claim.others());
+                }
+            }).thenAccept(result -> {
+                switch (result.status()) {
+                    case ALREADY_IN_GANG -> player.sendMessage(miniMessage.deserialize(messages.get("accept_already_in_gang")));
+                    case GANG_NOT_FOUND -> player.sendMessage(miniMessage.deserialize(messages.get("error")));
+                    case ACCEPTED -> {
+                        var gang = result.gang();
+                        var leaderUuid = gang.getLeaderUuid();
+                        var leader = org.bukkit.Bukkit.getPlayer(leaderUuid);
+                        String leaderName = leader != null ? leader.getName() : leaderUuid.toString();
+                        java.util.Map<String, String> placeholders = new java.util.HashMap<>();
+                        placeholders.put("gang", gang.getName());
+                        placeholders.put("leader", leaderName);
+                        player.sendMessage(miniMessage.deserialize(messages.get("accept_success", placeholders)));
+                    }
+                }
+            });
+        });
+    }
+
+    private static CompletableFuture<List<Gang>> invitingGangs(GangsPlugin plugin, List<PendingInvite> invites) {
+        List<CompletableFuture<Optional<Gang>>> lookups = invites.stream()
+                .map(invite -> plugin.getStorage().getGangById(invite.gangId()))
+                .toList();
+        return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                .thenApply(v -> lookups.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(Optional::stream)
+                        .toList());
+    }
+}
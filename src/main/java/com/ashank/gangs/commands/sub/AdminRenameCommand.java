@@ -3,6 +3,7 @@ package com.ashank.gangs.commands.sub;
 import com.ashank.gangs.GangsPlugin;
 import com.ashank.gangs.data.Confirmation;
 import com.ashank.gangs.data.Storage;
+import com.ashank.gangs.managers.ConfirmationManager;
 import com.ashank.gangs.managers.Messages;
 import com.ashank.gangs.Gang;
 import com.mojang.brigadier.Command;
@@ -10,16 +11,12 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.suggestion.SuggestionProvider;
-import com.mojang.brigadier.suggestion.Suggestions;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 public class AdminRenameCommand {
@@ -34,7 +31,7 @@ public class AdminRenameCommand {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("adminrename")
                 .requires(source -> source.getSender().hasPermission("gangs.admin.adminrename"))
                 .then(RequiredArgumentBuilder.<CommandSourceStack, String>argument("gang", StringArgumentType.string())
-                        .suggests(suggestGangNames(plugin))
+                        .suggests((context, builder) -> plugin.getGangNameIndex().suggest(builder))
                         .then(RequiredArgumentBuilder.<CommandSourceStack, String>argument("name", StringArgumentType.string())
                                 .executes(context -> executeAdminRename(context, plugin, storageManager, messages, miniMessage))))
                 .then(AdminRenameConfirmCommand.build(plugin));
@@ -63,31 +60,13 @@ public class AdminRenameCommand {
                     return;
                 }
                 Gang gang = gangOpt.get();
-                UUID adminUuid = sender instanceof Player ? ((Player) sender).getUniqueId() : UUID.randomUUID();
+                UUID adminUuid = ConfirmationManager.senderId(sender);
                 long timestamp = System.currentTimeMillis();
                 Confirmation confirmation = new Confirmation(adminUuid, "adminrename:" + gang.getGangId() + ":" + newName, gang.getGangId(), timestamp);
-                storageManager.addConfirmation(confirmation).thenAcceptAsync(v -> {
-                    sender.sendMessage(miniMessage.deserialize("<yellow>Type /gangs adminrename confirm to confirm renaming <white>" + gangName + "</white> to <white>" + newName + "</white>."));
-                }).exceptionally(ex -> {
-                    plugin.getLogger().severe("Error saving admin rename confirmation: " + ex.getMessage());
-                    sender.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                    return null;
-                });
+                plugin.getConfirmations().request(sender, confirmation);
+                sender.sendMessage(miniMessage.deserialize("<yellow>Type /gangs adminrename confirm to confirm renaming <white>" + gangName + "</white> to <white>" + newName + "</white>."));
             });
         });
         return Command.SINGLE_SUCCESS;
     }
-
-    private static SuggestionProvider<CommandSourceStack> suggestGangNames(GangsPlugin plugin) {
-        return (context, builder) -> {
-            CompletableFuture<Suggestions> future = new CompletableFuture<>();
-            plugin.getStorage().getAllGangs().thenAccept(gangs -> {
-                for (Gang gang : gangs) {
-                    builder.suggest(gang.getName());
-                }
-                future.complete(builder.build());
-            });
-            return future;
-        };
-    }
 } 
\ No newline at end of file
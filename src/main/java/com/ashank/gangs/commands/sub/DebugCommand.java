@@ -0,0 +1,61 @@
+package com.ashank.gangs.commands.sub;
+
+import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.CachingStorage;
+import com.ashank.gangs.data.ForwardingStorage;
+import com.ashank.gangs.data.GangRegistry;
+import com.ashank.gangs.data.InstrumentedStorage;
+import com.ashank.gangs.data.Storage;
+import com.ashank.gangs.data.StorageMetrics;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import org.bukkit.command.CommandSender;
+
+import java.util.List;
+import java.util.Optional;
+
+public class DebugCommand {
+
+    public static LiteralArgumentBuilder<CommandSourceStack> build(GangsPlugin plugin) {
+        return LiteralArgumentBuilder.<CommandSourceStack>literal("debug")
+                .requires(source -> source.getSender().hasPermission("gangs.admin.debug"))
+                .then(LiteralArgumentBuilder.<CommandSourceStack>literal("storage")
+                        .executes(context -> executeStorage(context, plugin)));
+    }
+
+    private static int executeStorage(CommandContext<CommandSourceStack> context, GangsPlugin plugin) {
+        CommandSender sender = context.getSource().getSender();
+        Storage storage = plugin.getStorage();
+
+        sender.sendMessage(line("Gangs storage", "gold"));
+        ForwardingStorage.find(storage, GangRegistry.class).ifPresent(registry ->
+                sender.sendMessage(line("Registry: " + registry.getPendingWriteCount() + " writes pending"
+                        + (registry.getFailedWriteCount() > 0 ? ", " + registry.getFailedWriteCount() + " failing and retried" : ""),
+                        registry.getFailedWriteCount() > 0 ? "red" : "gray")));
+        ForwardingStorage.find(storage, CachingStorage.class).ifPresent(cache ->
+                sender.sendMessage(line("Cache: " + cache.describeStats(), "gray")));
+
+        Optional<StorageMetrics> metrics = ForwardingStorage.find(storage, InstrumentedStorage.class).map(InstrumentedStorage::getMetrics);
+        if (metrics.isEmpty()) {
+            sender.sendMessage(line("Timings are off; set database.metrics.enabled to true.", "gray"));
+            return Command.SINGLE_SUCCESS;
+        }
+        List<String> lines = metrics.get().describe();
+        if (lines.isEmpty()) {
+            sender.sendMessage(line("No storage calls recorded yet.", "gray"));
+        }
+        for (String entry : lines) {
+            sender.sendMessage(line(entry, "white"));
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static Component line(String text, String color) {
+        return MiniMessage.miniMessage().deserialize("<" + color + "><text>", Placeholder.unparsed("text", text));
+    }
+}
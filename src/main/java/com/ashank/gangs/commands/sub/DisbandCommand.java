@@ -64,15 +64,8 @@ public class DisbandCommand {
                 
                 long timestamp = System.currentTimeMillis();
                 Confirmation confirmation = new Confirmation(playerUuid, "disband", gangId, timestamp);
-                storageManager.addConfirmation(confirmation).thenAcceptAsync(v -> {
-                    
-                    player.sendMessage(miniMessage.deserialize(messages.get("disband_confirm")));
-                }).exceptionally(ex -> {
-                    plugin.getLogger().severe("Error saving disband confirmation: " + ex.getMessage());
-                    ex.printStackTrace();
-                    player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                    return null;
-                });
+                plugin.getConfirmations().request(player, confirmation);
+                player.sendMessage(miniMessage.deserialize(messages.get("disband_confirm")));
             }).exceptionally(ex -> {
                 plugin.getLogger().severe("Error checking gang leadership: " + ex.getMessage());
                 ex.printStackTrace();
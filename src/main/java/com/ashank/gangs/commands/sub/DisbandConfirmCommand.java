@@ -62,64 +62,32 @@ public class DisbandConfirmCommand {
                     return;
                 }
 
-                storageManager.getConfirmation(playerUuid, "disband").thenAcceptAsync(confirmationOpt -> {
-                    if (confirmationOpt.isEmpty()) {
-                        player.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
-                        return;
-                    }
+                Optional<Confirmation> confirmationOpt = plugin.getConfirmations().claim(playerUuid, "disband");
+                if (confirmationOpt.isEmpty()) {
+                    player.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
+                    return;
+                }
 
-                    Confirmation confirmation = confirmationOpt.get();
-                    if (!confirmation.gangId().equals(gangId)) {
-                        player.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
-                        return;
-                    }
+                Confirmation confirmation = confirmationOpt.get();
+                if (!confirmation.gangId().equals(gangId)) {
+                    player.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
+                    return;
+                }
 
-                    if (System.currentTimeMillis() - confirmation.timestamp() > 60000) { 
-                        storageManager.removeConfirmation(playerUuid);
-                        player.sendMessage(miniMessage.deserialize(messages.get("confirmation_expired")));
+                storageManager.disbandGang(gangId).thenAcceptAsync((Set<UUID> members) -> {
+                    if (members.isEmpty()) {
+                        player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
                         return;
                     }
-
-                    
-                    storageManager.getGangMembers(gangId).thenAcceptAsync((Set<UUID> members) -> {
-                        
-                        for (UUID memberId : members) {
-                            storageManager.removeGangMember(gangId, memberId).exceptionally(ex -> {
-                                plugin.getLogger().severe("Error removing member " + memberId + ": " + ex.getMessage());
-                                ex.printStackTrace();
-                                return false;
-                            });
+                    for (UUID memberId : members) {
+                        Player member = plugin.getServer().getPlayer(memberId);
+                        if (member != null && member.isOnline()) {
+                            member.sendMessage(miniMessage.deserialize(messages.get("gang_disbanded_member")));
                         }
-
-                        
-                        storageManager.deleteGang(gangId).thenAcceptAsync(success -> {
-                            if (success) {
-                                
-                                for (UUID memberId : members) {
-                                    Player member = plugin.getServer().getPlayer(memberId);
-                                    if (member != null && member.isOnline()) {
-                                        member.sendMessage(miniMessage.deserialize(messages.get("gang_disbanded_member")));
-                                    }
-                                }
-                                player.sendMessage(miniMessage.deserialize(messages.get("gang_disbanded")));
-                                storageManager.removeConfirmation(playerUuid);
-                            } else {
-                                player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                            }
-                        }).exceptionally(ex -> {
-                            plugin.getLogger().severe("Error disbanding gang: " + ex.getMessage());
-                            ex.printStackTrace();
-                            player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                            return null;
-                        });
-                    }).exceptionally(ex -> {
-                        plugin.getLogger().severe("Error getting gang members: " + ex.getMessage());
-                        ex.printStackTrace();
-                        player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                        return null;
-                    });
+                    }
+                    player.sendMessage(miniMessage.deserialize(messages.get("gang_disbanded")));
                 }).exceptionally(ex -> {
-                    plugin.getLogger().severe("Error checking confirmation: " + ex.getMessage());
+                    plugin.getLogger().severe("Error disbanding gang: " + ex.getMessage());
                     ex.printStackTrace();
                     player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
                     return null;
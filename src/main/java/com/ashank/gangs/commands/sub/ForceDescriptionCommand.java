@@ -8,14 +8,11 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.suggestion.SuggestionProvider;
-import com.mojang.brigadier.suggestion.Suggestions;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import org.bukkit.command.CommandSender;
 
-import java.util.concurrent.CompletableFuture;
 
 public class ForceDescriptionCommand {
     private static final int MAX_DESCRIPTION_LENGTH = 24;
@@ -28,7 +25,7 @@ public class ForceDescriptionCommand {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("forcedescription")
             .requires(source -> source.getSender().hasPermission("gangs.admin.forcedescription"))
             .then(com.mojang.brigadier.builder.RequiredArgumentBuilder.<CommandSourceStack, String>argument("gang", StringArgumentType.string())
-                .suggests(suggestGangNames(plugin))
+                .suggests((context, builder) -> plugin.getGangNameIndex().suggest(builder))
                 .then(com.mojang.brigadier.builder.RequiredArgumentBuilder.<CommandSourceStack, String>argument("description", StringArgumentType.greedyString())
                     .executes(context -> executeForceDescription(context, plugin, storageManager, messages, miniMessage))
                 )
@@ -77,17 +74,4 @@ public class ForceDescriptionCommand {
         });
         return Command.SINGLE_SUCCESS;
     }
-
-    private static SuggestionProvider<CommandSourceStack> suggestGangNames(GangsPlugin plugin) {
-        return (context, builder) -> {
-            CompletableFuture<Suggestions> future = new CompletableFuture<>();
-            plugin.getStorage().getAllGangs().thenAccept(gangs -> {
-                for (Gang gang : gangs) {
-                    builder.suggest(gang.getName());
-                }
-                future.complete(builder.build());
-            });
-            return future;
-        };
-    }
 } 
\ No newline at end of file
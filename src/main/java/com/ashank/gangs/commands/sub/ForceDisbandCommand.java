@@ -8,13 +8,12 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.suggestion.SuggestionProvider;
-import com.mojang.brigadier.suggestion.Suggestions;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.UUID;
 
 public class ForceDisbandCommand {
 
@@ -26,7 +25,7 @@ public class ForceDisbandCommand {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("forcedisband")
             .requires(source -> source.getSender().hasPermission("gangs.admin.forcedisband"))
             .then(com.mojang.brigadier.builder.RequiredArgumentBuilder.<CommandSourceStack, String>argument("gang", StringArgumentType.string())
-                .suggests(suggestGangNames(plugin))
+                .suggests((context, builder) -> plugin.getGangNameIndex().suggest(builder))
                 .executes(context -> executeForceDisband(context, plugin, storageManager, messages, miniMessage))
             );
     }
@@ -42,8 +41,14 @@ public class ForceDisbandCommand {
                 return;
             }
             Gang gang = gangOpt.get();
-            storageManager.deleteGang(gang.getGangId()).thenAcceptAsync(success -> {
-                if (success) {
+            storageManager.disbandGang(gang.getGangId()).thenAcceptAsync(members -> {
+                if (!members.isEmpty()) {
+                    for (UUID memberId : members) {
+                        Player member = plugin.getServer().getPlayer(memberId);
+                        if (member != null && member.isOnline()) {
+                            member.sendMessage(miniMessage.deserialize(messages.get("gang_disbanded_member")));
+                        }
+                    }
                     sender.sendMessage(miniMessage.deserialize("<green>Gang <white>" + gangName + "</white> has been forcefully disbanded.</green>"));
                 } else {
                     sender.sendMessage(miniMessage.deserialize("<red>Failed to disband gang <white>" + gangName + "</white>.</red>"));
@@ -52,17 +57,4 @@ public class ForceDisbandCommand {
         });
         return Command.SINGLE_SUCCESS;
     }
-
-    private static SuggestionProvider<CommandSourceStack> suggestGangNames(GangsPlugin plugin) {
-        return (context, builder) -> {
-            CompletableFuture<Suggestions> future = new CompletableFuture<>();
-            plugin.getStorage().getAllGangs().thenAccept(gangs -> {
-                for (Gang gang : gangs) {
-                    builder.suggest(gang.getName());
-                }
-                future.complete(builder.build());
-            });
-            return future;
-        };
-    }
 }
\ No newline at end of file
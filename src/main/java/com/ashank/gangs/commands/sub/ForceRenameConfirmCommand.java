@@ -3,13 +3,13 @@ package com.ashank.gangs.commands.sub;
 import com.ashank.gangs.GangsPlugin;
 import com.ashank.gangs.data.Confirmation;
 import com.ashank.gangs.data.Storage;
+import com.ashank.gangs.managers.ConfirmationManager;
 import com.ashank.gangs.managers.Messages;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 
 import java.util.Optional;
@@ -27,39 +27,25 @@ public class ForceRenameConfirmCommand {
 
     private static int executeConfirm(CommandContext<CommandSourceStack> context, GangsPlugin plugin, Storage storageManager, Messages messages, MiniMessage miniMessage) {
         CommandSender sender = context.getSource().getSender();
-        UUID adminUuid = sender instanceof Player ? ((Player) sender).getUniqueId() : UUID.randomUUID();
-        storageManager.getConfirmation(adminUuid, "adminrename:").thenAcceptAsync(confirmationOpt -> {
-            Optional<Confirmation> found = confirmationOpt;
-            if (found.isEmpty()) {
-                sender.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
-                return;
+        UUID adminUuid = ConfirmationManager.senderId(sender);
+        Optional<Confirmation> found = plugin.getConfirmations().claim(adminUuid, "adminrename:");
+        if (found.isEmpty()) {
+            sender.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
+            return Command.SINGLE_SUCCESS;
+        }
+        String[] parts = found.get().type().split(":", 3);
+        if (parts.length < 3) {
+            sender.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
+            return Command.SINGLE_SUCCESS;
+        }
+        UUID gangId = UUID.fromString(parts[1]);
+        String newName = parts[2];
+        storageManager.updateGangName(gangId, newName).thenAcceptAsync(success -> {
+            if (success) {
+                sender.sendMessage(miniMessage.deserialize("<green>Gang renamed to <white>" + newName + "</white>."));
+            } else {
+                sender.sendMessage(miniMessage.deserialize(messages.get("command_error")));
             }
-            Confirmation confirmation = found.get();
-            String type = confirmation.type();
-            if (!type.startsWith("adminrename:")) {
-                sender.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
-                return;
-            }
-            String[] parts = type.split(":", 3);
-            if (parts.length < 3) {
-                sender.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
-                return;
-            }
-            UUID gangId = UUID.fromString(parts[1]);
-            String newName = parts[2];
-            if (System.currentTimeMillis() - confirmation.timestamp() > 60000) {
-                storageManager.removeConfirmation(adminUuid);
-                sender.sendMessage(miniMessage.deserialize(messages.get("confirmation_expired")));
-                return;
-            }
-            storageManager.updateGangName(gangId, newName).thenAcceptAsync(success -> {
-                if (success) {
-                    sender.sendMessage(miniMessage.deserialize("<green>Gang renamed to <white>" + newName + "</white>."));
-                    storageManager.removeConfirmation(adminUuid);
-                } else {
-                    sender.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                }
-            });
         });
         return Command.SINGLE_SUCCESS;
     }
@@ -7,8 +7,6 @@ import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
-import com.mojang.brigadier.suggestion.Suggestions;
-import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import org.bukkit.Bukkit;
@@ -33,7 +31,7 @@ public class InfoCommand {
                 .requires(source -> source.getSender().hasPermission("gangs.player.info"))
                 .executes(context -> executeInfo(context))
                 .then(RequiredArgumentBuilder.<CommandSourceStack, String>argument("name", StringArgumentType.greedyString())
-                        .suggests((context, builder) -> suggestGangNames(plugin, builder))
+                        .suggests((context, builder) -> plugin.getGangNameIndex().suggest(builder))
                         .executes(context -> executeInfoWithName(context)));
     }
 
@@ -122,20 +120,4 @@ public class InfoCommand {
         
         return CompletableFuture.completedFuture(null);
     }
-
-    private static CompletableFuture<Suggestions> suggestGangNames(GangsPlugin plugin, SuggestionsBuilder builder) {
-        String remaining = builder.getRemaining().toLowerCase();
-        return plugin.getStorage().getAllGangs()
-                .thenApply(gangs -> {
-                    gangs.stream()
-                        .map(Gang::getName)
-                        .filter(name -> name.toLowerCase().startsWith(remaining))
-                        .forEach(builder::suggest);
-                    return builder.build();
-                })
-                .exceptionally(ex -> {
-                    plugin.getLogger().severe("Error fetching gang names for suggestions: " + ex.getMessage());
-                    return builder.build();
-                });
-    }
 }
\ No newline at end of file
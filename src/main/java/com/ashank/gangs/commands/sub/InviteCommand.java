@@ -75,7 +75,7 @@ public class InviteCommand {
                     player.sendMessage(miniMessage.deserialize(messages.get("invite_already_in_gang")));
                     return;
                 }
-                storageManager.addInvite(new com.ashank.gangs.data.PendingInvite(
+                plugin.getInviteStore().addInvite(new com.ashank.gangs.data.PendingInvite(
                     targetUuid,
                     gang.getGangId(),
                     playerUuid,
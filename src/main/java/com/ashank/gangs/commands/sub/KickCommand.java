@@ -1,7 +1,7 @@
 package com.ashank.gangs.commands.sub;
 
-import com.ashank.gangs.Gang;
 import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.KickResult;
 import com.ashank.gangs.data.Storage;
 import com.ashank.gangs.managers.Messages;
 import com.mojang.brigadier.Command;
@@ -17,6 +17,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 
 public class KickCommand {
@@ -62,56 +63,30 @@ public class KickCommand {
             return Command.SINGLE_SUCCESS;
         }
 
-        storageManager.getPlayerGangAsync(senderId).thenAcceptAsync(senderGangOpt -> {
-            if (senderGangOpt.isEmpty()) {
-                player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("not_in_gang")));
-                return;
+        storageManager.getPlayerGangId(senderId).thenCompose(senderGangIdOpt -> {
+            if (senderGangIdOpt.isEmpty()) {
+                return CompletableFuture.completedFuture(KickResult.GANG_NOT_FOUND);
             }
-
-            Gang senderGang = senderGangOpt.get();
-            UUID senderGangId = senderGang.getGangId();
-
-            if (!senderGang.getLeaderUuid().equals(senderId)) {
-                player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("not_leader")));
-                return;
-            }
-
-            storageManager.getPlayerGangId(targetId).thenAcceptAsync(targetGangIdOpt -> {
-                if (targetGangIdOpt.isEmpty() || !targetGangIdOpt.get().equals(senderGangId)) {
-                    player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("player_not_in_your_gang"),
+            return storageManager.kickMember(senderGangIdOpt.get(), senderId, targetId);
+        }).thenAccept(result -> {
+            switch (result) {
+                case KICKED -> {
+                    player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("member_kicked"),
                             Placeholder.unparsed("player", targetPlayer.getName())));
-                    return;
-                }
-
-                storageManager.removeGangMember(senderGangId, targetId).thenAccept(success -> {
-                    if (success) {
-                        player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("member_kicked"),
-                                Placeholder.unparsed("player", targetPlayer.getName())));
-                        if (targetPlayer.isOnline()) {
-                            targetPlayer.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("you_were_kicked_by"),
-                                    Placeholder.unparsed("kicker", player.getName())));
-                        }
-                    } else {
-                        player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("error")));
-                        plugin.getLogger().warning("Failed to remove player " + targetId + " from gang " + senderGangId + " during kick operation (removeGangMember returned false).");
+                    if (targetPlayer.isOnline()) {
+                        targetPlayer.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("you_were_kicked_by"),
+                                Placeholder.unparsed("kicker", player.getName())));
                     }
-                }).exceptionally(ex -> {
-                    player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("error")));
-                    plugin.getLogger().severe("Error removing gang member during kick: " + ex.getMessage());
-                    ex.printStackTrace();
-                    return null;
-                });
-
-            }).exceptionally(ex -> {
-                player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("error")));
-                plugin.getLogger().severe("Error fetching target player gang ID for kick: " + ex.getMessage());
-                ex.printStackTrace();
-                return null;
-            });
-
+                }
+                case GANG_NOT_FOUND -> player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("not_in_gang")));
+                case NOT_LEADER -> player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("not_leader")));
+                case NOT_MEMBER -> player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("player_not_in_your_gang"),
+                        Placeholder.unparsed("player", targetPlayer.getName())));
+                case TARGET_IS_LEADER -> player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("error")));
+            }
         }).exceptionally(ex -> {
             player.sendMessage(MiniMessage.miniMessage().deserialize(messages.get("error")));
-            plugin.getLogger().severe("Error fetching sender gang data for kick: " + ex.getMessage());
+            plugin.getLogger().severe("Error kicking gang member: " + ex.getMessage());
             ex.printStackTrace();
             return null;
         });
@@ -1,9 +1,15 @@
 package com.ashank.gangs.commands.sub;
 
-import com.ashank.gangs.Gang;
 import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.GangPage;
+import com.ashank.gangs.data.GangSort;
+import com.ashank.gangs.data.GangSummary;
+import com.ashank.gangs.data.Storage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
@@ -12,56 +18,93 @@ import org.bukkit.entity.Player;
 import io.papermc.paper.command.brigadier.CommandSourceStack;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 
 public class ListCommand {
     
     private static final int GUILDS_PER_PAGE = 10;
+    // Furthest one listing jumps past the last page the player has seen
+    private static final int MAX_PAGES_PER_LISTING = 50;
+
+    /**
+     * Last row of each page a player has already seen, so the next page can be fetched by
+     * keyset. Jumping ahead fetches forward from the furthest known page.
+     */
+    private record PageCursors(GangSort sort, List<GangSummary> pageEnds) {
+    }
+
+    private record ListedPage(int number, GangPage page) {
+    }
+
+    private static final Cache<UUID, PageCursors> CURSORS = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(5))
+            .maximumSize(1000)
+            .build();
 
     
     public static LiteralArgumentBuilder<CommandSourceStack> build(GangsPlugin plugin) {
         return LiteralArgumentBuilder.<CommandSourceStack>literal("list")
                 .requires(source -> source.getSender() instanceof Player && source.getSender().hasPermission("gangs.player.list"))
-                .executes(context -> executeList(context, plugin, 1))
+                .executes(context -> executeList(context, plugin, 1, GangSort.NAME.key()))
                 .then(RequiredArgumentBuilder.<CommandSourceStack, Integer>argument("page", IntegerArgumentType.integer(1))
-                        .executes(context -> executeList(context, plugin, context.getArgument("page", Integer.class))));
+                        .executes(context -> executeList(context, plugin, context.getArgument("page", Integer.class), GangSort.NAME.key()))
+                        .then(RequiredArgumentBuilder.<CommandSourceStack, String>argument("sort", StringArgumentType.word())
+                                .suggests((context, builder) -> {
+                                    String remaining = builder.getRemaining().toLowerCase();
+                                    for (GangSort sort : GangSort.values()) {
+                                        if (sort.key().startsWith(remaining)) {
+                                            builder.suggest(sort.key());
+                                        }
+                                    }
+                                    return builder.buildFuture();
+                                })
+                                .executes(context -> executeList(context, plugin, context.getArgument("page", Integer.class),
+                                        context.getArgument("sort", String.class)))));
     }
 
-    private static int executeList(CommandContext<CommandSourceStack> context, GangsPlugin plugin, int requestedPage) {
+    private static int executeList(CommandContext<CommandSourceStack> context, GangsPlugin plugin, int requestedPage, String sortName) {
         CommandSender sender = context.getSource().getSender();
+        if (!(sender instanceof Player player)) {
+            return Command.SINGLE_SUCCESS;
+        }
 
-        plugin.getStorage().getAllGangs().thenAccept(gangs -> {
-            MiniMessage miniMessage = MiniMessage.miniMessage();
-            int totalPages = Math.max(1, (gangs.size() + GUILDS_PER_PAGE - 1) / GUILDS_PER_PAGE);
-            
-            
-            final int page = Math.min(Math.max(requestedPage, 1), totalPages);
+        GangSort sort = GangSort.fromName(sortName);
+        if (sort == null) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("sort", sortName);
+            sender.sendMessage(MiniMessage.miniMessage().deserialize(plugin.getMessages().get("list_invalid_sort", placeholders)));
+            return Command.SINGLE_SUCCESS;
+        }
 
-            
-            int startIndex = (page - 1) * GUILDS_PER_PAGE;
-            int endIndex = Math.min(startIndex + GUILDS_PER_PAGE, gangs.size());
+        fetchPage(plugin.getStorage(), player.getUniqueId(), sort, requestedPage).thenAccept(listed -> {
+            MiniMessage miniMessage = MiniMessage.miniMessage();
+            GangPage page = listed.page();
+            int totalPages = totalPages(page);
 
             
             Map<String, String> headerPlaceholders = new HashMap<>();
-            headerPlaceholders.put("page", String.valueOf(page));
-            headerPlaceholders.put("pages", String.valueOf(Math.max(1, totalPages)));
+            headerPlaceholders.put("page", String.valueOf(listed.number()));
+            headerPlaceholders.put("pages", String.valueOf(totalPages));
             sender.sendMessage(miniMessage.deserialize(plugin.getMessages().get("list_header", headerPlaceholders)));
 
             
-            if (gangs.isEmpty()) {
+            if (page.gangs().isEmpty()) {
                 sender.sendMessage(miniMessage.deserialize(plugin.getMessages().get("list_empty", new HashMap<>())));
                 return;
             }
 
             
-            List<Gang> pageGangs = gangs.subList(startIndex, endIndex);
-            for (Gang gang : pageGangs) {
+            for (GangSummary gang : page.gangs()) {
                 Map<String, String> entryPlaceholders = new HashMap<>();
-                entryPlaceholders.put("gang", gang.getName());
-                entryPlaceholders.put("count", String.valueOf(gang.getMemberUuids().size()));
+                entryPlaceholders.put("gang", gang.name());
+                entryPlaceholders.put("count", String.valueOf(gang.memberCount()));
                 sender.sendMessage(miniMessage.deserialize(plugin.getMessages().get("list_entry", entryPlaceholders)));
             }
         }).exceptionally(throwable -> {
@@ -74,4 +117,46 @@ public class ListCommand {
 
         return Command.SINGLE_SUCCESS;
     }
+
+    private static int totalPages(GangPage page) {
+        return Math.max(1, (page.totalGangs() + GUILDS_PER_PAGE - 1) / GUILDS_PER_PAGE);
+    }
+
+    private static CompletableFuture<ListedPage> fetchPage(Storage storage, UUID viewer, GangSort sort, int requestedPage) {
+        PageCursors cursors = CURSORS.asMap().compute(viewer, (key, existing) ->
+                existing != null && existing.sort() == sort ? existing : new PageCursors(sort, new ArrayList<>()));
+        int start;
+        GangSummary after;
+        synchronized (cursors) {
+            // Pages are numbered from 1 and pageEnds.get(n - 1) is the end of page n
+            start = Math.min(requestedPage, cursors.pageEnds().size() + 1);
+            after = start == 1 ? null : cursors.pageEnds().get(start - 2);
+        }
+        return walk(storage, cursors, after, start, requestedPage);
+    }
+
+    /**
+     * Fetches every page from {@code number} up to the requested one in a single listing.
+     * Paging forward reads one page; jumping ahead reads every row in between, at most
+     * {@link #MAX_PAGES_PER_LISTING} pages, and remembers where each page ends.
+     */
+    private static CompletableFuture<ListedPage> walk(Storage storage, PageCursors cursors, GangSummary after, int number, int requestedPage) {
+        int pages = Math.min(requestedPage - number + 1, MAX_PAGES_PER_LISTING);
+        return storage.listGangs(cursors.sort(), after, pages * GUILDS_PER_PAGE).thenApply(listing -> {
+            List<GangSummary> rows = listing.gangs();
+            synchronized (cursors) {
+                for (int end = GUILDS_PER_PAGE; end <= rows.size(); end += GUILDS_PER_PAGE) {
+                    int page = number + end / GUILDS_PER_PAGE - 1;
+                    if (cursors.pageEnds().size() == page - 1) {
+                        cursors.pageEnds().add(rows.get(end - 1));
+                    }
+                }
+            }
+            // Past the last gang, show the last page that has any
+            int shown = rows.isEmpty() ? 0 : Math.min(pages - 1, (rows.size() - 1) / GUILDS_PER_PAGE);
+            int from = shown * GUILDS_PER_PAGE;
+            List<GangSummary> gangs = List.copyOf(rows.subList(Math.min(from, rows.size()), Math.min(from + GUILDS_PER_PAGE, rows.size())));
+            return new ListedPage(number + shown, new GangPage(gangs, listing.totalGangs()));
+        });
+    }
 }
\ No newline at end of file
@@ -74,13 +74,8 @@ public class RenameCommand {
                     }
                     long timestamp = System.currentTimeMillis();
                     Confirmation confirmation = new Confirmation(playerUuid, "rename:" + newName, gangId, timestamp);
-                    storageManager.addConfirmation(confirmation).thenAcceptAsync(v -> {
-                        player.sendMessage(miniMessage.deserialize("<yellow>Type /gangs rename confirm to confirm renaming your gang to <white>" + newName + "</white>."));
-                    }).exceptionally(ex -> {
-                        plugin.getLogger().severe("Error saving rename confirmation: " + ex.getMessage());
-                        player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                        return null;
-                    });
+                    plugin.getConfirmations().request(player, confirmation);
+                    player.sendMessage(miniMessage.deserialize("<yellow>Type /gangs rename confirm to confirm renaming your gang to <white>" + newName + "</white>."));
                 });
             });
         });
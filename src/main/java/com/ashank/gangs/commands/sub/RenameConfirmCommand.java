@@ -48,32 +48,23 @@ public class RenameConfirmCommand {
                     player.sendMessage(miniMessage.deserialize(messages.get("not_leader")));
                     return;
                 }
-                storageManager.getConfirmation(playerUuid, "rename:" + "").thenAcceptAsync(confirmationOpt -> {
-                    Optional<Confirmation> found = confirmationOpt;
-                    if (found.isEmpty()) {
-                        player.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
-                        return;
-                    }
-                    Confirmation confirmation = found.get();
-                    String type = confirmation.type();
-                    if (!type.startsWith("rename:")) {
-                        player.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
-                        return;
-                    }
-                    String newName = type.substring("rename:".length());
-                    if (System.currentTimeMillis() - confirmation.timestamp() > 60000) {
-                        storageManager.removeConfirmation(playerUuid);
-                        player.sendMessage(miniMessage.deserialize(messages.get("confirmation_expired")));
-                        return;
+                Optional<Confirmation> found = plugin.getConfirmations().claim(playerUuid, "rename:");
+                if (found.isEmpty()) {
+                    player.sendMessage(miniMessage.deserialize(messages.get("no_pending_confirmation")));
+                    return;
+                }
+                Confirmation confirmation = found.get();
+                if (!confirmation.gangId().equals(gangId)) {
+                    player.sendMessage(miniMessage.deserialize(messages.get("invalid_confirmation")));
+                    return;
+                }
+                String newName = confirmation.type().substring("rename:".length());
+                storageManager.updateGangName(gangId, newName).thenAcceptAsync(success -> {
+                    if (success) {
+                        player.sendMessage(miniMessage.deserialize("<green>Gang renamed to <white>" + newName + "</white>."));
+                    } else {
+                        player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
                     }
-                    storageManager.updateGangName(gangId, newName).thenAcceptAsync(success -> {
-                        if (success) {
-                            player.sendMessage(miniMessage.deserialize("<green>Gang renamed to <white>" + newName + "</white>."));
-                            storageManager.removeConfirmation(playerUuid);
-                        } else {
-                            player.sendMessage(miniMessage.deserialize(messages.get("command_error")));
-                        }
-                    });
                 });
             });
         });
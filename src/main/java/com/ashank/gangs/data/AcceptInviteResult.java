@@ -0,0 +1,22 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+/**
+ * Outcome of accepting an invite. {@code gang} is the joined gang
+ * when the invite was accepted, otherwise {@code null}.
+ */
+public record AcceptInviteResult(
+        Status status,
+        Gang gang
+) {
+    public enum Status {
+        ACCEPTED,
+        ALREADY_IN_GANG,
+        GANG_NOT_FOUND
+    }
+
+    public static AcceptInviteResult of(Status status) {
+        return new AcceptInviteResult(status, null);
+    }
+}
@@ -0,0 +1,317 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.logging.Level;
+
+/**
+ * Caches player to gang and gang id to gang lookups in front of a database backend, for
+ * setups that run without the {@link GangRegistry}.
+ * <p>
+ * Entries are loaded while a player logs in and stay cached for as long as the player (or,
+ * for gangs, any member) is online, and expire a configurable time after that. Mutations made through this layer invalidate the entries they touch.
+ */
+public class CachingStorage extends ForwardingStorage {
+
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    private final Cache<UUID, Optional<UUID>> playerGangs;
+    private final Cache<UUID, Gang> gangs;
+    // Bumped on every invalidation so a load that raced with a mutation is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private JavaPlugin plugin;
+
+    public CachingStorage(Storage delegate, long maximumSize, long offlineExpirySeconds) {
+        super(delegate);
+        long offlineNanos = TimeUnit.SECONDS.toNanos(Math.max(1, offlineExpirySeconds));
+        this.playerGangs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new OnlineExpiry<UUID, Optional<UUID>>(offlineNanos, (player, gangId) -> onlinePlayers.contains(player)))
+                .recordStats()
+                .build();
+        this.gangs = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new OnlineExpiry<UUID, Gang>(offlineNanos, (gangId, gang) -> hasOnlineMember(gang)))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        return super.initialize(plugin);
+    }
+
+    @Override
+    public void close() {
+        if (plugin != null) {
+            plugin.getLogger().info("Gang cache " + describeStats());
+        }
+        super.close();
+    }
+
+    /**
+     * Loads the player's gang into the cache, so their first lookups after joining are hits.
+     */
+    public CompletableFuture<Optional<Gang>> preload(UUID playerUuid) {
+        return getPlayerGangAsync(playerUuid);
+    }
+
+    public CacheStats getPlayerStats() {
+        return playerGangs.stats();
+    }
+
+    public CacheStats getGangStats() {
+        return gangs.stats();
+    }
+
+    public String describeStats() {
+        CacheStats player = playerGangs.stats();
+        CacheStats gang = gangs.stats();
+        return String.format("players: %d cached, %.1f%% hit rate (%d requests); gangs: %d cached, %.1f%% hit rate (%d requests)",
+                playerGangs.estimatedSize(), player.hitRate() * 100, player.requestCount(),
+                gangs.estimatedSize(), gang.hitRate() * 100, gang.requestCount());
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        Optional<UUID> cached = playerGangs.getIfPresent(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long loadGeneration = generation.get();
+        return super.getPlayerGangId(playerUuid).thenApply(gangId -> {
+            cacheIfCurrent(loadGeneration, () -> playerGangs.put(playerUuid, gangId));
+            return gangId;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        Gang cached = gangs.getIfPresent(gangId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached.copy()));
+        }
+        long loadGeneration = generation.get();
+        return super.getGangById(gangId).thenApply(gang -> {
+            gang.ifPresent(loaded -> cacheIfCurrent(loadGeneration, () -> gangs.put(gangId, loaded.copy())));
+            return gang;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        return getPlayerGangId(playerUuid).thenCompose(gangId -> gangId.isEmpty()
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : getGangById(gangId.get()));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        Gang cached = gangs.getIfPresent(gangId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new HashSet<>(cached.getMemberUuids()));
+        }
+        return super.getGangMembers(gangId);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        Optional<UUID> cached = playerGangs.getIfPresent(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.isPresent() && cached.get().equals(gangId));
+        }
+        return super.isMember(gangId, playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return super.createGang(gang).whenComplete((result, ex) -> invalidateMembership(gang.getGangId(), gang.getLeaderUuid()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return super.updateGangName(gangId, newName).whenComplete((result, ex) -> invalidateGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return super.updateGang(gang).whenComplete((result, ex) -> invalidateGang(gang.getGangId()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return super.deleteGang(gangId).whenComplete((result, ex) -> invalidateGangAndMembers(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return super.disbandGang(gangId).whenComplete((result, ex) -> invalidateGangAndMembers(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return super.addGangMember(gangId, playerUuid).whenComplete((result, ex) -> invalidateMembership(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return super.acceptInvite(playerUuid, gangId).whenComplete((result, ex) -> invalidateMembership(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return super.kickMember(gangId, leaderUuid, targetUuid).whenComplete((result, ex) -> invalidateMembership(gangId, targetUuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return super.removeGangMember(gangId, playerUuid).whenComplete((result, ex) -> invalidateMembership(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return super.applyMutations(mutations).whenComplete((result, ex) -> mutations.forEach(this::invalidate));
+    }
+
+    private void invalidate(GangMutation mutation) {
+        switch (mutation) {
+            case GangMutation.CreateGang m -> invalidateMembership(m.gangId(), m.leaderUuid());
+            case GangMutation.UpdateGang m -> invalidateGang(m.gangId());
+            case GangMutation.RenameGang m -> invalidateGang(m.gangId());
+            case GangMutation.DeleteGang m -> invalidateGangAndMembers(m.gangId());
+            case GangMutation.DisbandGang m -> invalidateGangAndMembers(m.gangId());
+            case GangMutation.AddMember m -> invalidateMembership(m.gangId(), m.playerUuid());
+            case GangMutation.AcceptInvite m -> invalidateMembership(m.gangId(), m.playerUuid());
+            case GangMutation.RemoveMember m -> invalidateMembership(m.gangId(), m.playerUuid());
+            // Invites are not cached
+            case GangMutation.AddInvite m -> {}
+            case GangMutation.RemoveInvites m -> {}
+            case GangMutation.RemoveInvite m -> {}
+        }
+    }
+
+    private void invalidateGang(UUID gangId) {
+        generation.incrementAndGet();
+        gangs.invalidate(gangId);
+    }
+
+    private void invalidateMembership(UUID gangId, UUID playerUuid) {
+        generation.incrementAndGet();
+        gangs.invalidate(gangId);
+        playerGangs.invalidate(playerUuid);
+    }
+
+    private void invalidateGangAndMembers(UUID gangId) {
+        generation.incrementAndGet();
+        gangs.invalidate(gangId);
+        playerGangs.asMap().values().removeIf(cached -> cached.isPresent() && cached.get().equals(gangId));
+    }
+
+    private void cacheIfCurrent(long loadGeneration, Runnable put) {
+        if (generation.get() == loadGeneration) {
+            put.run();
+        }
+    }
+
+    private boolean hasOnlineMember(Gang gang) {
+        for (UUID member : gang.getMemberUuids()) {
+            if (onlinePlayers.contains(member)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Re-evaluates the expiry of the player's entries after they joined or quit.
+     */
+    private void refreshExpiry(UUID playerUuid) {
+        Optional<UUID> gangId = playerGangs.asMap().computeIfPresent(playerUuid, (key, value) -> value);
+        if (gangId != null && gangId.isPresent()) {
+            gangs.asMap().computeIfPresent(gangId.get(), (key, value) -> value);
+        }
+    }
+
+    /**
+     * Keeps an entry forever while {@code pinned} holds, and for {@code offlineNanos} after it
+     * stops holding. Pinning is re-evaluated whenever the entry is written.
+     */
+    private record OnlineExpiry<K, V>(long offlineNanos, BiPredicate<K, V> pinned) implements Expiry<K, V> {
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return pinned.test(key, value) ? Long.MAX_VALUE : offlineNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Preloads players while they log in and tracks who is online for the cache expiry.
+     */
+    public static class SessionListener implements Listener {
+        private final CachingStorage storage;
+        private final JavaPlugin plugin;
+
+        public SessionListener(JavaPlugin plugin, CachingStorage storage) {
+            this.plugin = plugin;
+            this.storage = storage;
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+            if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+                return;
+            }
+            // This event runs off the main thread and is meant for blocking loads
+            try {
+                storage.preload(event.getUniqueId()).get(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Could not preload gang data for " + event.getName(), e);
+            }
+        }
+
+        @EventHandler(priority = EventPriority.LOWEST)
+        public void onJoin(PlayerJoinEvent event) {
+            UUID playerUuid = event.getPlayer().getUniqueId();
+            storage.onlinePlayers.add(playerUuid);
+            storage.refreshExpiry(playerUuid);
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(PlayerQuitEvent event) {
+            UUID playerUuid = event.getPlayer().getUniqueId();
+            storage.onlinePlayers.remove(playerUuid);
+            storage.refreshExpiry(playerUuid);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Storage} that forwards every call to another storage. Decorators extend this
+ * and override only the methods they care about.
+ */
+public abstract class ForwardingStorage implements Storage {
+
+    private final Storage delegate;
+
+    protected ForwardingStorage(Storage delegate) {
+        this.delegate = delegate;
+    }
+
+    protected Storage delegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the first layer of type {@code type} in the stack, starting with {@code storage} itself
+     */
+    public static <T extends Storage> Optional<T> find(Storage storage, Class<T> type) {
+        Storage current = storage;
+        while (!type.isInstance(current)) {
+            if (!(current instanceof ForwardingStorage forwarding)) {
+                return Optional.empty();
+            }
+            current = forwarding.delegate;
+        }
+        return Optional.of(type.cast(current));
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        return delegate.initialize(plugin);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        return delegate.isGangNameTaken(name);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return delegate.updateGangName(gangId, newName);
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return delegate.createGang(gang);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        return delegate.getGangById(gangId);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        return delegate.getGangByName(name);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        return delegate.getGangByLeader(leaderUuid);
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        return delegate.getAllGangs();
+    }
+
+    @Override
+    public CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit) {
+        return delegate.listGangs(sort, after, limit);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return delegate.updateGang(gang);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return delegate.deleteGang(gangId);
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return delegate.disbandGang(gangId);
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return delegate.addGangMember(gangId, playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return delegate.acceptInvite(playerUuid, gangId);
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return delegate.kickMember(gangId, leaderUuid, targetUuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return delegate.removeGangMember(gangId, playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        return delegate.getGangMembers(gangId);
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        return delegate.getPlayerGangId(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        return delegate.addInvite(invite);
+    }
+
+    @Override
+    public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) {
+        return delegate.getInvite(invitedPlayerUuid);
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getAllInvites() {
+        return delegate.getAllInvites();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        return delegate.removeInvite(invitedPlayerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        return delegate.removeInvite(invitedPlayerUuid, gangId);
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        return delegate.removeExpiredInvites(expiryTimestamp);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        return delegate.isMember(gangId, playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        return delegate.getPlayerGangAsync(playerUuid);
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return delegate.applyMutations(mutations);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Receives gang changes after {@link NotifyingStorage} has applied them, so in-memory views
+ * can be kept up to date without asking storage again. Callbacks run on whichever thread
+ * completed the storage call and must not block.
+ */
+public interface GangChangeListener {
+
+    default void gangCreated(Gang gang) {
+    }
+
+    /**
+     * Called after {@link Storage#updateGang(Gang)}; the name, leader or description may have changed.
+     */
+    default void gangUpdated(Gang gang) {
+    }
+
+    default void gangRenamed(UUID gangId, String newName) {
+    }
+
+    /**
+     * @param formerMembers the members at the time of removal, or empty if they are not known
+     */
+    default void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+    }
+
+    default void memberAdded(UUID gangId, UUID playerUuid) {
+    }
+
+    default void memberRemoved(UUID gangId, UUID playerUuid) {
+    }
+}
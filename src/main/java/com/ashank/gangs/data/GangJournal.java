@@ -0,0 +1,432 @@
+package com.ashank.gangs.data;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of storage changes in a directory of numbered segments and snapshots.
+ * {@code snapshot-N.dat} holds the state after every record in segments before N, so
+ * recovery loads the newest snapshot and replays {@code journal-N.log} onwards.
+ * <p>
+ * Records are framed as length, payload and CRC32. Appends are buffered and a single
+ * writer thread writes and fsyncs whatever has accumulated since its last sync, so many
+ * changes share one fsync under load (group commit). Once the current segment grows past
+ * the compaction size, the writer starts a new segment and a background thread writes a
+ * snapshot of the state at that point and deletes the files it replaces. A batch that
+ * fails to write stops the journal: it is cut off the segment again and nothing written
+ * afterwards, so what is on disk never includes a change whose write failed.
+ */
+final class GangJournal implements AutoCloseable {
+
+    @FunctionalInterface
+    interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface RecordReader {
+        void read(DataInputStream in) throws IOException;
+    }
+
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d+)\\.(log|dat)");
+    // Anything larger is taken to be a damaged length rather than a real record
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final long compactAfterBytes;
+    private final Object stateLock;
+    private final Logger logger;
+    private StorageMetrics metrics;
+
+    // Guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private List<CompletableFuture<Void>> pendingFutures = new ArrayList<>();
+    private boolean rollRequested;
+    private volatile boolean running;
+    private volatile boolean failed;
+
+    // Only touched by the writer thread once started
+    private FileChannel channel;
+    private long segment;
+
+    private Supplier<GangSnapshot.Contents> capture;
+    private Thread writer;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Gangs Journal Compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param stateLock the lock held while changes are applied and appended; held again
+     *                  when the state is captured for a snapshot, so it matches the journal
+     */
+    GangJournal(Path directory, long compactAfterBytes, Object stateLock, Logger logger) {
+        this.directory = directory;
+        this.compactAfterBytes = Math.max(1, compactAfterBytes);
+        this.stateLock = stateLock;
+        this.logger = logger;
+    }
+
+    void setMetrics(StorageMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Recovers the stored state: passes the newest snapshot to {@code restore}, then every
+     * later record to {@code replay}, and starts appending to a new segment.
+     *
+     * @param capture returns the current state when a snapshot is due; called while
+     *                holding the state lock
+     * @return the number of records replayed
+     */
+    long open(Consumer<GangSnapshot.Contents> restore, RecordReader replay, Supplier<GangSnapshot.Contents> capture) throws IOException {
+        this.capture = capture;
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (var files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    (matcher.group(1).equals("journal") ? segments : snapshots).put(Long.parseLong(matcher.group(2)), file);
+                }
+            });
+        }
+
+        long base = 0;
+        if (!snapshots.isEmpty()) {
+            base = snapshots.lastKey();
+            restore.accept(GangSnapshot.read(snapshots.lastEntry().getValue()));
+        }
+        long replayed = 0;
+        Long last = segments.isEmpty() ? null : segments.lastKey();
+        for (var entry : segments.tailMap(base, true).entrySet()) {
+            replayed += replay(entry.getValue(), replay, entry.getKey().equals(last));
+        }
+        deleteBefore(base);
+
+        long next = base;
+        if (last != null) {
+            next = Math.max(next, last + 1);
+        }
+        openSegment(next);
+        running = true;
+        writer = new Thread(this::runWriter, "Gangs Journal");
+        writer.setDaemon(true);
+        writer.start();
+        return replayed;
+    }
+
+    /**
+     * Queues a record; must be called while holding the state lock, right after the change
+     * it describes was applied.
+     *
+     * @return completes once the record is on disk
+     */
+    CompletableFuture<Void> append(RecordWriter record) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            record.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        synchronized (pendingLock) {
+            if (!running) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Journal is closed or stopped"));
+            }
+            DataOutputStream out = new DataOutputStream(pending);
+            try {
+                out.writeInt(payload.length);
+                out.write(payload);
+                out.writeInt((int) crc.getValue());
+            } catch (IOException e) {
+                // ByteArrayOutputStream does not throw
+                throw new IllegalStateException(e);
+            }
+            pendingFutures.add(durable);
+            pendingLock.notifyAll();
+        }
+        return durable;
+    }
+
+    /**
+     * @return whether a failed write stopped the journal; it takes no more records after that
+     */
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Writes out everything queued, snapshots the final state and stops the writer.
+     */
+    @Override
+    public void close() {
+        synchronized (pendingLock) {
+            running = false;
+            pendingLock.notifyAll();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            if (failed) {
+                logger.severe("Not snapshotting the gang journal on shutdown: changes since its failed write were never stored");
+                return;
+            }
+            // A snapshot on shutdown means the next start has nothing to replay
+            GangSnapshot.Contents state;
+            synchronized (stateLock) {
+                state = capture.get();
+            }
+            writeSnapshot(state, segment + 1);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not snapshot the gang journal on shutdown", e);
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            List<CompletableFuture<Void>> futures;
+            GangSnapshot.Contents state = null;
+            synchronized (pendingLock) {
+                while (running && pending.size() == 0 && !rollRequested) {
+                    try {
+                        pendingLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (!running && pending.size() == 0) {
+                    return;
+                }
+            }
+            if (rollRequested()) {
+                // Under the state lock nothing can be applied between the capture and the swap
+                synchronized (stateLock) {
+                    synchronized (pendingLock) {
+                        state = capture.get();
+                        rollRequested = false;
+                        batch = swapPending();
+                        futures = swapFutures();
+                    }
+                }
+            } else {
+                synchronized (pendingLock) {
+                    batch = swapPending();
+                    futures = swapFutures();
+                }
+            }
+
+            long start = System.nanoTime();
+            long batchStart = -1;
+            try {
+                batchStart = channel.size();
+                ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                if (metrics != null) {
+                    metrics.recordWait("journal fsync", System.nanoTime() - start);
+                }
+                futures.forEach(future -> future.complete(null));
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not write " + futures.size() + " gang journal records", e);
+                futures.forEach(future -> future.completeExceptionally(e));
+                stopAfterFailedWrite(batchStart, e);
+                return;
+            }
+
+            try {
+                if (state != null) {
+                    long snapshotSegment = segment + 1;
+                    channel.close();
+                    openSegment(snapshotSegment);
+                    GangSnapshot.Contents snapshotState = state;
+                    compactor.execute(() -> compact(snapshotState, snapshotSegment));
+                } else if (channel.size() >= compactAfterBytes && compacting.compareAndSet(false, true)) {
+                    synchronized (pendingLock) {
+                        rollRequested = true;
+                    }
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not start a new gang journal segment", e);
+            }
+        }
+    }
+
+    /**
+     * Stops the journal after a batch failed to write. The changes it describes are already
+     * applied in memory, so nothing may snapshot that state any more: no compaction starts,
+     * close writes no snapshot, queued records fail and new ones are refused. The batch is
+     * also cut off the segment, so recovery only meets damage at the real end of the
+     * journal and comes back to the last state that was on disk.
+     *
+     * @param position segment size before the batch, or -1 if it is unknown
+     */
+    private void stopAfterFailedWrite(long position, IOException cause) {
+        List<CompletableFuture<Void>> queued;
+        synchronized (pendingLock) {
+            failed = true;
+            running = false;
+            swapPending();
+            queued = swapFutures();
+        }
+        IllegalStateException stopped = new IllegalStateException("Journal stopped after a failed write", cause);
+        queued.forEach(future -> future.completeExceptionally(stopped));
+        if (position < 0) {
+            return;
+        }
+        try {
+            channel.truncate(position);
+            channel.force(false);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not remove the failed write from the gang journal; recovery drops it as a torn record", e);
+        }
+    }
+
+    private boolean rollRequested() {
+        synchronized (pendingLock) {
+            return rollRequested;
+        }
+    }
+
+    private ByteArrayOutputStream swapPending() {
+        ByteArrayOutputStream batch = pending;
+        pending = new ByteArrayOutputStream(Math.max(256, batch.size()));
+        return batch;
+    }
+
+    private List<CompletableFuture<Void>> swapFutures() {
+        List<CompletableFuture<Void>> futures = pendingFutures;
+        pendingFutures = new ArrayList<>();
+        return futures;
+    }
+
+    private void compact(GangSnapshot.Contents state, long snapshotSegment) {
+        try {
+            writeSnapshot(state, snapshotSegment);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not compact the gang journal", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void writeSnapshot(GangSnapshot.Contents state, long snapshotSegment) throws IOException {
+        GangSnapshot.write(directory.resolve(String.format("snapshot-%010d.dat", snapshotSegment)), state.gangs(), state.invites());
+        deleteBefore(snapshotSegment);
+    }
+
+    /**
+     * Deletes snapshots and segments that the snapshot for {@code segment} replaces.
+     */
+    private void deleteBefore(long segment) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches() && Long.parseLong(matcher.group(2)) < segment) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        channel = FileChannel.open(directory.resolve(String.format("journal-%010d.log", number)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Replays one segment. A record cut short or failing its checksum at the end of the
+     * last segment is what a crash mid-append leaves behind; it is dropped and the segment
+     * truncated before it. Damage anywhere else fails recovery.
+     */
+    private long replay(Path file, RecordReader reader, boolean lastSegment) throws IOException {
+        long records = 0;
+        long position = 0;
+        long size = Files.size(file);
+        try (InputStream fileIn = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn, 1 << 16))) {
+            while (position < size) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_SIZE) {
+                        throw new IOException("invalid record length " + length);
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if (in.readInt() != (int) crc.getValue()) {
+                        throw new IOException("record checksum mismatch");
+                    }
+                } catch (IOException e) {
+                    if (!lastSegment) {
+                        throw new IOException(file + " is damaged at byte " + position, e);
+                    }
+                    logger.warning("Dropping " + (size - position) + " bytes of incomplete records at the end of " + file.getFileName());
+                    try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        truncate.truncate(position);
+                    }
+                    break;
+                }
+                reader.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                position += 8L + payload.length;
+                records++;
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * Writes every gang and its members to a {@link GangMapFile} for servers using
+ * {@link MappedStorage}. Listens for gang changes and only exports when something changed
+ * since the last export; call {@link #exportIfChanged()} every export interval from an
+ * async task.
+ */
+public class GangMapExporter implements GangChangeListener {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final JavaPlugin plugin;
+    private final Storage storage;
+    private final Path file;
+    private final long intervalSeconds;
+    // Starts set so the first run exports whatever storage already holds
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+
+    public GangMapExporter(JavaPlugin plugin, Storage storage, Path file, long intervalSeconds) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.file = file;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    /**
+     * @return the exporter for the {@code database.export} section, or {@code null} if exporting is disabled
+     */
+    public static GangMapExporter fromConfig(JavaPlugin plugin, Storage storage, ConfigurationSection config) {
+        if (config == null || !config.getBoolean("enabled", false)) {
+            return null;
+        }
+        if (ForwardingStorage.find(storage, MappedStorage.class).isPresent()) {
+            plugin.getLogger().warning("Gang map export is enabled but this server reads a gang map; not exporting");
+            return null;
+        }
+        Path file = GangMapFile.resolve(plugin.getDataFolder(), config.getString("file", "gangs.map"));
+        long intervalSeconds = Math.max(1, config.getLong("interval-seconds", 30));
+        plugin.getLogger().info("Exporting gangs to " + file + " every " + intervalSeconds + "s when they change");
+        return new GangMapExporter(plugin, storage, file, intervalSeconds);
+    }
+
+    public long getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    /**
+     * Exports if any gang changed since the last export. Blocks on storage and disk, so
+     * never call it on the main thread.
+     */
+    public void exportIfChanged() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        try {
+            export();
+        } catch (IOException | CompletionException e) {
+            changed.set(true);
+            plugin.getLogger().log(Level.WARNING, "Could not export gangs to " + file, e);
+        }
+    }
+
+    private void export() throws IOException {
+        // Creation times only come with listings, so page through them alongside the full gangs
+        Map<UUID, Long> createdAt = new HashMap<>();
+        GangSummary after = null;
+        while (true) {
+            GangPage page = storage.listGangs(GangSort.CREATED, after, PAGE_SIZE).join();
+            page.gangs().forEach(summary -> createdAt.put(summary.gangId(), summary.createdAt()));
+            if (page.gangs().size() < PAGE_SIZE) {
+                break;
+            }
+            after = page.last();
+        }
+        List<Gang> gangs = storage.getAllGangs().join();
+        List<GangSnapshot.StoredGang> stored = new ArrayList<>(gangs.size());
+        for (Gang gang : gangs) {
+            stored.add(new GangSnapshot.StoredGang(gang, createdAt.getOrDefault(gang.getGangId(), 0L)));
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        GangMapFile.write(file, stored, System.currentTimeMillis());
+    }
+
+    @Override
+    public void gangCreated(Gang gang) {
+        changed.set(true);
+    }
+
+    @Override
+    public void gangUpdated(Gang gang) {
+        changed.set(true);
+    }
+
+    @Override
+    public void gangRenamed(UUID gangId, String newName) {
+        changed.set(true);
+    }
+
+    @Override
+    public void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        changed.set(true);
+    }
+
+    @Override
+    public void memberAdded(UUID gangId, UUID playerUuid) {
+        changed.set(true);
+    }
+
+    @Override
+    public void memberRemoved(UUID gangId, UUID playerUuid) {
+        changed.set(true);
+    }
+}
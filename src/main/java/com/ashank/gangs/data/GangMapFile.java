@@ -0,0 +1,372 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only, memory-mapped file of every gang and its members, written by
+ * {@link GangMapExporter} and served by {@link MappedStorage}. Lookups binary search
+ * fixed-size index entries in the mapped buffer, so finding a player's gang reads a few
+ * longs and allocates nothing beyond the returned UUID; only a gang that is asked for in
+ * full is decoded.
+ * <p>
+ * Layout, all big-endian: a header, then three sorted indexes and the gang records.
+ * <ul>
+ *     <li>gang index: gang UUID, record offset; sorted by UUID</li>
+ *     <li>player index: player UUID, gang ordinal; sorted by UUID</li>
+ *     <li>name index: hash of the case-folded name, gang ordinal; sorted by hash</li>
+ *     <li>gang record: leader, created-at, member count, name and description lengths,
+ *     members (leader included), name and description in UTF-8</li>
+ * </ul>
+ * A gang ordinal is its position in the gang index. The header ends with a CRC32 of
+ * everything after it, checked once when the file is opened.
+ */
+final class GangMapFile {
+
+    private static final int MAGIC = 0x474E474D; // "GNGM"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 44;
+    private static final int GANG_ENTRY = 20;
+    private static final int PLAYER_ENTRY = 20;
+    private static final int NAME_ENTRY = 8;
+    private static final int RECORD_FIXED = 32;
+    private static final int NO_DESCRIPTION = -1;
+
+    private final ByteBuffer buffer;
+    private final long exportedAt;
+    private final int gangCount;
+    private final int playerCount;
+    private final int gangIndex;
+    private final int playerIndex;
+    private final int nameIndex;
+
+    private GangMapFile(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a gang map");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported gang map version " + version);
+        }
+        exportedAt = buffer.getLong(8);
+        gangCount = buffer.getInt(16);
+        playerCount = buffer.getInt(20);
+        gangIndex = buffer.getInt(24);
+        playerIndex = buffer.getInt(28);
+        nameIndex = buffer.getInt(32);
+        int records = buffer.getInt(36);
+        if (gangCount < 0 || playerCount < 0
+                || gangIndex != HEADER_SIZE
+                || playerIndex != gangIndex + gangCount * GANG_ENTRY
+                || nameIndex != playerIndex + playerCount * PLAYER_ENTRY
+                || records != nameIndex + gangCount * NAME_ENTRY
+                || records > buffer.capacity()) {
+            throw new IOException("Gang map is damaged: bad header");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, buffer.capacity() - HEADER_SIZE));
+        if ((int) crc.getValue() != buffer.getInt(40)) {
+            throw new IOException("Gang map is damaged: checksum mismatch");
+        }
+    }
+
+    /**
+     * Maps the file and checks it is complete. The mapping stays valid after the file is
+     * replaced or deleted and is released once the returned object is unreachable.
+     *
+     * @throws IOException if the file cannot be read, is not a gang map or fails its checksum
+     */
+    static GangMapFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to map");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GangMapFile(buffer);
+        } catch (IOException e) {
+            throw new IOException("Could not open gang map " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the gangs to a temporary file, forces it to disk and renames it over
+     * {@code file}, so readers only ever see complete exports.
+     */
+    static void write(Path file, List<GangSnapshot.StoredGang> gangs, long exportedAt) throws IOException {
+        List<GangSnapshot.StoredGang> byId = new ArrayList<>(gangs);
+        byId.sort(Comparator.comparing(stored -> stored.gang().getGangId()));
+
+        List<byte[]> names = new ArrayList<>(byId.size());
+        List<byte[]> descriptions = new ArrayList<>(byId.size());
+        List<long[]> players = new ArrayList<>();
+        long size = HEADER_SIZE;
+        for (int ordinal = 0; ordinal < byId.size(); ordinal++) {
+            Gang gang = byId.get(ordinal).gang();
+            byte[] name = gang.getName().getBytes(StandardCharsets.UTF_8);
+            byte[] description = gang.getDescription() != null ? gang.getDescription().getBytes(StandardCharsets.UTF_8) : null;
+            if (name.length > Short.MAX_VALUE || (description != null && description.length > Short.MAX_VALUE)) {
+                throw new IOException("Gang " + gang.getGangId() + " has a name or description too long to export");
+            }
+            names.add(name);
+            descriptions.add(description);
+            for (UUID member : gang.getMemberUuids()) {
+                players.add(new long[]{member.getMostSignificantBits(), member.getLeastSignificantBits(), ordinal});
+            }
+            size += GANG_ENTRY + NAME_ENTRY + RECORD_FIXED + 16L * gang.getMemberUuids().size()
+                    + name.length + (description != null ? description.length : 0);
+        }
+        size += (long) players.size() * PLAYER_ENTRY;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Gang map would be larger than 2GB");
+        }
+        players.sort(Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]));
+
+        ByteBuffer out = ByteBuffer.allocate((int) size);
+        int gangIndex = HEADER_SIZE;
+        int playerIndex = gangIndex + byId.size() * GANG_ENTRY;
+        int nameIndex = playerIndex + players.size() * PLAYER_ENTRY;
+        int records = nameIndex + byId.size() * NAME_ENTRY;
+        out.putInt(MAGIC).putInt(VERSION).putLong(exportedAt)
+                .putInt(byId.size()).putInt(players.size())
+                .putInt(gangIndex).putInt(playerIndex).putInt(nameIndex).putInt(records)
+                .putInt(0);
+
+        out.position(records);
+        long[] nameEntries = new long[byId.size()];
+        for (int ordinal = 0; ordinal < byId.size(); ordinal++) {
+            GangSnapshot.StoredGang stored = byId.get(ordinal);
+            Gang gang = stored.gang();
+            int offset = out.position();
+            out.putLong(gangIndex + ordinal * GANG_ENTRY, gang.getGangId().getMostSignificantBits())
+                    .putLong(gangIndex + ordinal * GANG_ENTRY + 8, gang.getGangId().getLeastSignificantBits())
+                    .putInt(gangIndex + ordinal * GANG_ENTRY + 16, offset);
+            nameEntries[ordinal] = ((long) nameHash(gang.getName()) << 32) | ordinal;
+
+            byte[] name = names.get(ordinal);
+            byte[] description = descriptions.get(ordinal);
+            putUuid(out, gang.getLeaderUuid());
+            out.putLong(stored.createdAt());
+            out.putInt(gang.getMemberUuids().size());
+            out.putShort((short) name.length);
+            out.putShort((short) (description != null ? description.length : NO_DESCRIPTION));
+            for (UUID member : gang.getMemberUuids()) {
+                putUuid(out, member);
+            }
+            out.put(name);
+            if (description != null) {
+                out.put(description);
+            }
+        }
+
+        out.position(playerIndex);
+        for (long[] player : players) {
+            out.putLong(player[0]).putLong(player[1]).putInt((int) player[2]);
+        }
+        // Sorting hash << 32 | ordinal orders by hash, as the ordinal never reaches the sign bit
+        Arrays.sort(nameEntries);
+        for (long entry : nameEntries) {
+            out.putInt((int) (entry >> 32)).putInt((int) entry);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(out.slice(HEADER_SIZE, (int) size - HEADER_SIZE));
+        out.putInt(40, (int) crc.getValue());
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.clear();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @return {@code file} if it is absolute, so several servers can share one export, otherwise
+     * {@code file} within the plugin folder
+     */
+    static Path resolve(File dataFolder, String file) {
+        Path path = Path.of(file);
+        return path.isAbsolute() ? path : dataFolder.toPath().resolve(path);
+    }
+
+    /**
+     * @return when the file was exported, in epoch milliseconds
+     */
+    long exportedAt() {
+        return exportedAt;
+    }
+
+    int gangCount() {
+        return gangCount;
+    }
+
+    int playerCount() {
+        return playerCount;
+    }
+
+    /**
+     * @return the ordinal of the gang, or -1 if it is not in the file
+     */
+    int findGang(UUID gangId) {
+        return search(gangIndex, GANG_ENTRY, gangCount, gangId);
+    }
+
+    /**
+     * @return the ordinal of the player's gang, or -1 if the player has none
+     */
+    int findPlayerGang(UUID playerUuid) {
+        int entry = search(playerIndex, PLAYER_ENTRY, playerCount, playerUuid);
+        return entry < 0 ? -1 : buffer.getInt(playerIndex + entry * PLAYER_ENTRY + 16);
+    }
+
+    /**
+     * @return the ordinal of the gang with this name, ignoring case, or -1 if there is none
+     */
+    int findName(String name) {
+        String normalized = Gang.normalizeName(name);
+        int hash = nameHash(name);
+        int low = 0;
+        int high = gangCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(nameIndex + mid * NAME_ENTRY) < hash) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int entry = low; entry < gangCount && buffer.getInt(nameIndex + entry * NAME_ENTRY) == hash; entry++) {
+            int ordinal = buffer.getInt(nameIndex + entry * NAME_ENTRY + 4);
+            if (Gang.normalizeName(name(ordinal)).equals(normalized)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    UUID gangId(int ordinal) {
+        return uuidAt(gangIndex + ordinal * GANG_ENTRY);
+    }
+
+    UUID leader(int ordinal) {
+        return uuidAt(record(ordinal));
+    }
+
+    int memberCount(int ordinal) {
+        return buffer.getInt(record(ordinal) + 24);
+    }
+
+    String name(int ordinal) {
+        int record = record(ordinal);
+        return string(record + RECORD_FIXED + 16 * buffer.getInt(record + 24), buffer.getShort(record + 28));
+    }
+
+    Set<UUID> members(int ordinal) {
+        int record = record(ordinal);
+        int count = buffer.getInt(record + 24);
+        Set<UUID> members = new HashSet<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            members.add(uuidAt(record + RECORD_FIXED + 16 * i));
+        }
+        return members;
+    }
+
+    /**
+     * Decodes the whole gang: its name, description and member set.
+     */
+    Gang gang(int ordinal) {
+        int record = record(ordinal);
+        int count = buffer.getInt(record + 24);
+        int nameLength = buffer.getShort(record + 28);
+        int descriptionLength = buffer.getShort(record + 30);
+        int names = record + RECORD_FIXED + 16 * count;
+        String description = descriptionLength == NO_DESCRIPTION ? null : string(names + nameLength, descriptionLength);
+        return new Gang(gangId(ordinal), string(names, nameLength), uuidAt(record), members(ordinal), description);
+    }
+
+    GangSummary summary(int ordinal) {
+        int record = record(ordinal);
+        return new GangSummary(gangId(ordinal), name(ordinal), uuidAt(record), buffer.getInt(record + 24),
+                buffer.getLong(record + 16));
+    }
+
+    private int record(int ordinal) {
+        return buffer.getInt(gangIndex + ordinal * GANG_ENTRY + 16);
+    }
+
+    /**
+     * Binary search of index entries that start with a UUID, comparing the two longs as
+     * {@link UUID#compareTo} does.
+     */
+    private int search(int index, int entrySize, int count, UUID key) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = index + mid * entrySize;
+            int compare = Long.compare(buffer.getLong(offset), most);
+            if (compare == 0) {
+                compare = Long.compare(buffer.getLong(offset + 8), least);
+            }
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private UUID uuidAt(int offset) {
+        return new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int nameHash(String name) {
+        return Gang.normalizeName(name).hashCode();
+    }
+
+    private static void putUuid(ByteBuffer out, UUID uuid) {
+        out.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A single change to gang data, as queued by {@link GangRegistry} and applied by
+ * {@link Storage#applyMutations(java.util.List)}.
+ */
+public sealed interface GangMutation {
+
+    /**
+     * @param createdAt epoch millis at which the gang was created in memory
+     */
+    record CreateGang(UUID gangId, String name, UUID leaderUuid, String description, long createdAt) implements GangMutation {
+        public Gang toGang() {
+            Set<UUID> members = new HashSet<>();
+            members.add(leaderUuid);
+            return new Gang(gangId, name, leaderUuid, members, description);
+        }
+    }
+
+    record UpdateGang(UUID gangId, String name, UUID leaderUuid, String description) implements GangMutation {
+        public static UpdateGang of(Gang gang) {
+            return new UpdateGang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(), gang.getDescription());
+        }
+
+        public Gang toGang() {
+            Set<UUID> members = new HashSet<>();
+            members.add(leaderUuid);
+            return new Gang(gangId, name, leaderUuid, members, description);
+        }
+    }
+
+    record RenameGang(UUID gangId, String newName) implements GangMutation {}
+
+    record DeleteGang(UUID gangId) implements GangMutation {}
+
+    /**
+     * Removes the gang together with its members and invites.
+     */
+    record DisbandGang(UUID gangId) implements GangMutation {}
+
+    record AddMember(UUID gangId, UUID playerUuid) implements GangMutation {}
+
+    /**
+     * Adds the player to the gang and removes their pending invite.
+     */
+    record AcceptInvite(UUID gangId, UUID playerUuid) implements GangMutation {}
+
+    record RemoveMember(UUID gangId, UUID playerUuid) implements GangMutation {}
+
+    /**
+     * Stores the invite, replacing any earlier invite of the player to the same gang.
+     */
+    record AddInvite(PendingInvite invite) implements GangMutation {}
+
+    /**
+     * Removes every stored invite of the player.
+     */
+    record RemoveInvites(UUID invitedPlayerUuid) implements GangMutation {}
+
+    record RemoveInvite(UUID invitedPlayerUuid, UUID gangId) implements GangMutation {}
+}
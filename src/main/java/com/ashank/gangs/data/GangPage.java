@@ -0,0 +1,16 @@
+package com.ashank.gangs.data;
+
+import java.util.List;
+
+/**
+ * A page of {@link GangSummary} rows along with the total number of gangs.
+ */
+public record GangPage(List<GangSummary> gangs, int totalGangs) {
+
+    /**
+     * @return the cursor to pass for the following page, or {@code null} if this page is empty
+     */
+    public GangSummary last() {
+        return gangs.isEmpty() ? null : gangs.get(gangs.size() - 1);
+    }
+}
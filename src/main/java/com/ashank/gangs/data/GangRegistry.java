@@ -0,0 +1,462 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Authoritative in-memory view of all gangs that sits in front of a database backend.
+ * Gang reads are answered from memory; gang mutations are applied to memory immediately
+ * and written to the backend in batches by a background flusher.
+ * <p>
+ * Stored invites are not cached, but their writes join the same queue, so an invite is
+ * never written ahead of the gang it belongs to. Invite reads and paged listings go to
+ * the backend and may trail memory by up to one flush interval.
+ */
+public class GangRegistry extends ForwardingStorage {
+
+    private final Map<UUID, Gang> gangs = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> playerGangs = new ConcurrentHashMap<>();
+    private final Map<String, UUID> gangNames = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private final BlockingQueue<GangMutation> pendingWrites = new LinkedBlockingQueue<>();
+    // Failed writes, oldest first; changed only by flush, counted from any thread
+    private final Deque<GangMutation> failedWrites = new ConcurrentLinkedDeque<>();
+    private long retryDelayMillis;
+    private long nextRetryNanos;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private ScheduledExecutorService flusher;
+    private JavaPlugin plugin;
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    public GangRegistry(Storage delegate, long flushIntervalMillis, int batchSize) {
+        super(delegate);
+        this.flushIntervalMillis = Math.max(10, flushIntervalMillis);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        return delegate().initialize(plugin)
+                .thenCompose(v -> delegate().getAllGangs())
+                .thenAccept(loaded -> {
+                    synchronized (writeLock) {
+                        for (Gang gang : loaded) {
+                            index(gang.copy());
+                        }
+                    }
+                    plugin.getLogger().info("Gang registry loaded " + gangs.size() + " gangs and " + playerGangs.size() + " members.");
+                    startFlusher();
+                });
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush(true);
+        super.close();
+    }
+
+    private void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Gangs Write-Behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes all queued mutations to the backend, one batch at a time. Mutations that fail
+     * stay at the head of the queue, in order, and are retried with a growing delay; later
+     * writes wait behind them, since they may depend on them. Mutations the database rejects
+     * outright are dropped, see {@link #retry()}.
+     */
+    public synchronized void flush() {
+        flush(false);
+    }
+
+    private synchronized void flush(boolean closing) {
+        if (!failedWrites.isEmpty() && !closing && System.nanoTime() < nextRetryNanos) {
+            return;
+        }
+        List<GangMutation> batch = new ArrayList<>(batchSize);
+        while (retry() && pendingWrites.drainTo(batch, batchSize) > 0) {
+            try {
+                delegate().applyMutations(batch).join();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Batch of " + batch.size() + " gang writes failed, retrying individually", e);
+                failedWrites.addAll(batch);
+            }
+            batch.clear();
+        }
+        if (closing && !failedWrites.isEmpty()) {
+            plugin.getLogger().severe("Shutting down with " + getPendingWriteCount()
+                    + " gang writes that could not be persisted; they are lost");
+        }
+    }
+
+    /**
+     * Applies the failed writes one by one until one fails again. A write the database
+     * rejects for its data, such as a constraint violation, would fail the same way every
+     * time and hold back everything after it, so it is logged and dropped instead.
+     *
+     * @return whether all of them were persisted or dropped
+     */
+    private boolean retry() {
+        while (!failedWrites.isEmpty()) {
+            GangMutation mutation = failedWrites.peekFirst();
+            try {
+                delegate().applyMutations(List.of(mutation)).join();
+                failedWrites.removeFirst();
+            } catch (Exception e) {
+                if (isPermanentFailure(e)) {
+                    failedWrites.removeFirst();
+                    plugin.getLogger().log(Level.SEVERE, "Dropping gang write the database will never accept: " + mutation, e);
+                    continue;
+                }
+                retryDelayMillis = retryDelayMillis == 0 ? flushIntervalMillis : Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis * 2);
+                nextRetryNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+                plugin.getLogger().log(Level.SEVERE, "Gang write could not be persisted, " + getPendingWriteCount()
+                        + " writes held back; retrying in " + retryDelayMillis + "ms: " + mutation, e);
+                return false;
+            }
+        }
+        if (retryDelayMillis > 0) {
+            plugin.getLogger().info("Held back gang writes persisted, resuming normal flushing");
+            retryDelayMillis = 0;
+        }
+        return true;
+    }
+
+    private boolean isPermanentFailure(Throwable failure) {
+        return ForwardingStorage.find(delegate(), JdbcStorage.class)
+                .map(jdbc -> jdbc.isPermanentFailure(failure))
+                .orElse(false);
+    }
+
+    /**
+     * @return writes not yet persisted, including those held back after a failure
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites.size() + failedWrites.size();
+    }
+
+    /**
+     * @return writes that failed and are waiting to be retried
+     */
+    public int getFailedWriteCount() {
+        return failedWrites.size();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        return CompletableFuture.completedFuture(gangNames.containsKey(normalize(name)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        synchronized (writeLock) {
+            Gang current = gangs.get(gangId);
+            if (current == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            UUID owner = gangNames.get(normalize(newName));
+            if (owner != null && !owner.equals(gangId)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            Gang renamed = current.copy();
+            renamed.setName(newName);
+            replace(current, renamed);
+            pendingWrites.add(new GangMutation.RenameGang(gangId, newName));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return createGang(gang, System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang, long createdAt) {
+        synchronized (writeLock) {
+            if (gangs.containsKey(gang.getGangId()) || gangNames.containsKey(normalize(gang.getName()))) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Gang already exists: " + gang.getName()));
+            }
+            if (playerGangs.containsKey(gang.getLeaderUuid())) {
+                return CompletableFuture.failedFuture(new IllegalStateException(gang.getLeaderUuid() + " is already in a gang"));
+            }
+            Set<UUID> members = new HashSet<>();
+            members.add(gang.getLeaderUuid());
+            index(new Gang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(), members, gang.getDescription()));
+            pendingWrites.add(new GangMutation.CreateGang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(),
+                    gang.getDescription(), createdAt));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        return CompletableFuture.completedFuture(findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        UUID gangId = gangNames.get(normalize(name));
+        return CompletableFuture.completedFuture(gangId == null ? Optional.empty() : findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        UUID gangId = playerGangs.get(leaderUuid);
+        Gang gang = gangId == null ? null : gangs.get(gangId);
+        if (gang == null || !gang.getLeaderUuid().equals(leaderUuid)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return CompletableFuture.completedFuture(Optional.of(gang.copy()));
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        List<Gang> result = new ArrayList<>(gangs.size());
+        for (Gang gang : gangs.values()) {
+            result.add(gang.copy());
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        synchronized (writeLock) {
+            Gang current = gangs.get(gang.getGangId());
+            if (current == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            UUID owner = gangNames.get(normalize(gang.getName()));
+            if (owner != null && !owner.equals(gang.getGangId())) {
+                return CompletableFuture.completedFuture(false);
+            }
+            Set<UUID> members = new HashSet<>(current.getMemberUuids());
+            members.add(gang.getLeaderUuid());
+            replace(current, new Gang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(), members, gang.getDescription()));
+            pendingWrites.add(GangMutation.UpdateGang.of(gang));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        synchronized (writeLock) {
+            Gang removed = gangs.remove(gangId);
+            if (removed == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            gangNames.remove(normalize(removed.getName()), gangId);
+            for (UUID member : removed.getMemberUuids()) {
+                playerGangs.remove(member, gangId);
+            }
+            pendingWrites.add(new GangMutation.DeleteGang(gangId));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        synchronized (writeLock) {
+            Gang removed = gangs.remove(gangId);
+            if (removed == null) {
+                return CompletableFuture.completedFuture(new HashSet<>());
+            }
+            gangNames.remove(normalize(removed.getName()), gangId);
+            for (UUID member : removed.getMemberUuids()) {
+                playerGangs.remove(member, gangId);
+            }
+            pendingWrites.add(new GangMutation.DisbandGang(gangId));
+            return CompletableFuture.completedFuture(new HashSet<>(removed.getMemberUuids()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        synchronized (writeLock) {
+            Gang current = gangs.get(gangId);
+            if (current == null) {
+                return CompletableFuture.failedFuture(new IllegalStateException("No gang with id " + gangId));
+            }
+            UUID previousGangId = playerGangs.get(playerUuid);
+            if (previousGangId != null && !previousGangId.equals(gangId)) {
+                removeMemberLocked(previousGangId, playerUuid);
+            }
+            Gang updated = current.copy();
+            updated.addMember(playerUuid);
+            gangs.put(gangId, updated);
+            playerGangs.put(playerUuid, gangId);
+            pendingWrites.add(new GangMutation.AddMember(gangId, playerUuid));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        synchronized (writeLock) {
+            if (playerGangs.containsKey(playerUuid)) {
+                return CompletableFuture.completedFuture(AcceptInviteResult.of(AcceptInviteResult.Status.ALREADY_IN_GANG));
+            }
+            Gang current = gangs.get(gangId);
+            if (current == null) {
+                return CompletableFuture.completedFuture(AcceptInviteResult.of(AcceptInviteResult.Status.GANG_NOT_FOUND));
+            }
+            Gang updated = current.copy();
+            updated.addMember(playerUuid);
+            gangs.put(gangId, updated);
+            playerGangs.put(playerUuid, gangId);
+            pendingWrites.add(new GangMutation.AcceptInvite(gangId, playerUuid));
+            return CompletableFuture.completedFuture(new AcceptInviteResult(AcceptInviteResult.Status.ACCEPTED, updated.copy()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        synchronized (writeLock) {
+            Gang current = gangs.get(gangId);
+            if (current == null) {
+                return CompletableFuture.completedFuture(KickResult.GANG_NOT_FOUND);
+            }
+            if (!current.getLeaderUuid().equals(leaderUuid)) {
+                return CompletableFuture.completedFuture(KickResult.NOT_LEADER);
+            }
+            if (current.getLeaderUuid().equals(targetUuid)) {
+                return CompletableFuture.completedFuture(KickResult.TARGET_IS_LEADER);
+            }
+            boolean removed = removeMemberLocked(gangId, targetUuid);
+            return CompletableFuture.completedFuture(removed ? KickResult.KICKED : KickResult.NOT_MEMBER);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        synchronized (writeLock) {
+            return CompletableFuture.completedFuture(removeMemberLocked(gangId, playerUuid));
+        }
+    }
+
+    private boolean removeMemberLocked(UUID gangId, UUID playerUuid) {
+        Gang current = gangs.get(gangId);
+        if (current == null || !current.getMemberUuids().contains(playerUuid)) {
+            return false;
+        }
+        // The leader stays part of the gang record, mirroring how the database maps gang rows.
+        if (!current.getLeaderUuid().equals(playerUuid)) {
+            Gang updated = current.copy();
+            updated.removeMember(playerUuid);
+            gangs.put(gangId, updated);
+        }
+        playerGangs.remove(playerUuid, gangId);
+        pendingWrites.add(new GangMutation.RemoveMember(gangId, playerUuid));
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        Gang gang = gangs.get(gangId);
+        return CompletableFuture.completedFuture(gang == null ? new HashSet<>() : new HashSet<>(gang.getMemberUuids()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(playerGangs.get(playerUuid)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        return CompletableFuture.completedFuture(gangId.equals(playerGangs.get(playerUuid)));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        UUID gangId = playerGangs.get(playerUuid);
+        return CompletableFuture.completedFuture(gangId == null ? Optional.empty() : findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        pendingWrites.add(new GangMutation.AddInvite(invite));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Queues the removal; the result is always {@code true}, since invites are not held here.
+     */
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        pendingWrites.add(new GangMutation.RemoveInvites(invitedPlayerUuid));
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Queues the removal; the result is always {@code true}, since invites are not held here.
+     */
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        pendingWrites.add(new GangMutation.RemoveInvite(invitedPlayerUuid, gangId));
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return Storage.applySequentially(this, mutations);
+    }
+
+    private Optional<Gang> findGang(UUID gangId) {
+        Gang gang = gangs.get(gangId);
+        return gang == null ? Optional.empty() : Optional.of(gang.copy());
+    }
+
+    private void index(Gang gang) {
+        gangs.put(gang.getGangId(), gang);
+        gangNames.put(normalize(gang.getName()), gang.getGangId());
+        for (UUID member : gang.getMemberUuids()) {
+            playerGangs.put(member, gang.getGangId());
+        }
+    }
+
+    private void replace(Gang current, Gang updated) {
+        if (!current.getName().equals(updated.getName())) {
+            gangNames.remove(normalize(current.getName()), current.getGangId());
+        }
+        index(updated);
+    }
+
+    private static String normalize(String name) {
+        return Gang.normalizeName(name);
+    }
+}
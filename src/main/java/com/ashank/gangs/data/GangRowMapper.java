@@ -0,0 +1,55 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds {@link Gang} objects from a single query that joins {@code gangs} with
+ * {@code gang_members}, so loading gangs never needs a member query per gang.
+ */
+final class GangRowMapper {
+
+    /**
+     * Selects every gang together with its members, one row per member. Rows of the same
+     * gang are adjacent, which lets {@link #readGangs(ResultSet, UuidFormat)} group them
+     * while streaming. Append a {@code WHERE} clause before {@link #ORDER_BY} to narrow it
+     * down.
+     */
+    static final String SELECT_WITH_MEMBERS = """
+            SELECT g.id, g.name, g.leader_uuid, g.description, m.player_uuid
+            FROM gangs g
+            LEFT JOIN gang_members m ON m.gang_id = g.id
+            """;
+
+    static final String ORDER_BY = " ORDER BY g.id";
+
+    private GangRowMapper() {
+    }
+
+    static List<Gang> readGangs(ResultSet rs, UuidFormat uuidFormat) throws SQLException {
+        List<Gang> gangs = new ArrayList<>();
+        Gang current = null;
+        while (rs.next()) {
+            UUID gangId = uuidFormat.read(rs, "id");
+            if (current == null || !current.getGangId().equals(gangId)) {
+                UUID leaderUuid = uuidFormat.read(rs, "leader_uuid");
+                Set<UUID> members = new HashSet<>();
+                members.add(leaderUuid);
+                current = new Gang(gangId, rs.getString("name"), leaderUuid, members, rs.getString("description"));
+                gangs.add(current);
+            }
+            UUID memberUuid = uuidFormat.read(rs, "player_uuid");
+            if (memberUuid != null) {
+                current.addMember(memberUuid);
+            }
+        }
+        return gangs;
+    }
+}
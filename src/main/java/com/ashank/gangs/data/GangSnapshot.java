@@ -0,0 +1,150 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file holding every gang and stored invite. UUIDs are written as two longs and
+ * the file ends with a CRC32 of everything before it, so a damaged file is refused
+ * rather than loaded half-way.
+ * <p>
+ * Snapshots are written to a temporary file, forced to disk and then renamed over the
+ * previous one, so a crash mid-write leaves the last complete snapshot in place.
+ */
+final class GangSnapshot {
+
+    /**
+     * A gang as kept in memory. The gang is never changed once stored; updates store a copy.
+     */
+    record StoredGang(Gang gang, long createdAt) {
+    }
+
+    record Contents(List<StoredGang> gangs, List<PendingInvite> invites) {
+    }
+
+    private static final int MAGIC = 0x474E4753; // "GNGS"
+    private static final int VERSION = 1;
+
+    private GangSnapshot() {
+    }
+
+    static void write(Path file, Collection<StoredGang> gangs, Collection<PendingInvite> invites) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(gangs.size());
+            for (StoredGang stored : gangs) {
+                Gang gang = stored.gang();
+                writeUuid(out, gang.getGangId());
+                out.writeUTF(gang.getName());
+                writeUuid(out, gang.getLeaderUuid());
+                out.writeBoolean(gang.getDescription() != null);
+                if (gang.getDescription() != null) {
+                    out.writeUTF(gang.getDescription());
+                }
+                out.writeLong(stored.createdAt());
+                // The leader is always a member and is not repeated
+                out.writeInt(gang.getMemberUuids().size() - 1);
+                for (UUID member : gang.getMemberUuids()) {
+                    if (!member.equals(gang.getLeaderUuid())) {
+                        writeUuid(out, member);
+                    }
+                }
+            }
+            out.writeInt(invites.size());
+            for (PendingInvite invite : invites) {
+                writeUuid(out, invite.invitedPlayerUuid());
+                writeUuid(out, invite.gangId());
+                writeUuid(out, invite.inviterUuid());
+                out.writeLong(invite.timestamp());
+            }
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+            out.flush();
+            fileOut.getChannel().force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * @throws IOException if the file cannot be read, is not a snapshot or fails its checksum
+     */
+    static Contents read(Path file) throws IOException {
+        try (InputStream fileIn = Files.newInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(fileIn, 1 << 16), new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a gang snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(file + " has unsupported snapshot version " + version);
+            }
+            int gangCount = in.readInt();
+            List<StoredGang> gangs = new ArrayList<>(gangCount);
+            for (int i = 0; i < gangCount; i++) {
+                UUID gangId = readUuid(in);
+                String name = in.readUTF();
+                UUID leader = readUuid(in);
+                String description = in.readBoolean() ? in.readUTF() : null;
+                long createdAt = in.readLong();
+                int memberCount = in.readInt();
+                Set<UUID> members = new HashSet<>(memberCount + 1);
+                members.add(leader);
+                for (int m = 0; m < memberCount; m++) {
+                    members.add(readUuid(in));
+                }
+                gangs.add(new StoredGang(new Gang(gangId, name, leader, members, description), createdAt));
+            }
+            int inviteCount = in.readInt();
+            List<PendingInvite> invites = new ArrayList<>(inviteCount);
+            for (int i = 0; i < inviteCount; i++) {
+                invites.add(new PendingInvite(readUuid(in), readUuid(in), readUuid(in), in.readLong()));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException(file + " is damaged: checksum mismatch");
+            }
+            return new Contents(gangs, invites);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ashank.gangs.data;
+
+import java.util.Locale;
+
+/**
+ * Orderings supported by {@link Storage#listGangs(GangSort, GangSummary, int)}.
+ */
+public enum GangSort {
+    /** Alphabetical by case-folded name. */
+    NAME,
+    /** Largest gangs first. */
+    SIZE,
+    /** Oldest gangs first. */
+    CREATED;
+
+    /**
+     * @return the sort with the given name, ignoring case, or {@code null} if there is none
+     */
+    public static GangSort fromName(String name) {
+        for (GangSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(name)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,10 @@
+package com.ashank.gangs.data;
+
+import java.util.UUID;
+
+/**
+ * One row of a gang listing: the gang without its member set, only the member total.
+ * Also serves as the keyset cursor for fetching the page after it.
+ */
+public record GangSummary(UUID gangId, String name, UUID leaderUuid, int memberCount, long createdAt) {
+}
@@ -0,0 +1,226 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import com.ashank.gangs.jfr.StorageCallEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Times every storage call from the moment it is made until its future completes. Each
+ * call is recorded in {@link StorageMetrics} under {@code <layer>.<method>} and, while a
+ * flight recording is running, as a {@link StorageCallEvent}. Calls that throw or complete
+ * exceptionally count as errors.
+ */
+public class InstrumentedStorage extends ForwardingStorage {
+
+    private final StorageMetrics metrics;
+    private final boolean jfrEvents;
+    private final String layer;
+    private final String prefix;
+
+    /**
+     * @param metrics where to record timings, or {@code null} to only emit JFR events
+     */
+    public InstrumentedStorage(Storage delegate, StorageMetrics metrics, boolean jfrEvents, String layer) {
+        super(delegate);
+        this.metrics = metrics;
+        this.jfrEvents = jfrEvents;
+        this.layer = layer;
+        this.prefix = layer + ".";
+    }
+
+    /**
+     * @return the metrics calls are recorded in, or {@code null} if only JFR events are emitted
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    private <T> CompletableFuture<T> timed(String operation, Supplier<CompletableFuture<T>> call) {
+        long start = System.nanoTime();
+        StorageCallEvent event = jfrEvents ? new StorageCallEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            finish(operation, start, event, null, true);
+            throw e;
+        }
+        future.whenComplete((result, ex) -> finish(operation, start, event, result, ex != null));
+        return future;
+    }
+
+    private void finish(String operation, long start, StorageCallEvent event, Object result, boolean failed) {
+        if (metrics != null) {
+            metrics.record(prefix + operation, System.nanoTime() - start, failed);
+        }
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.layer = layer;
+                event.method = operation;
+                event.rows = rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof GangPage page) {
+            return page.gangs().size();
+        }
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Boolean changed) {
+            return changed ? 1 : 0;
+        }
+        return 0;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        return timed("isGangNameTaken", () -> delegate().isGangNameTaken(name));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return timed("updateGangName", () -> delegate().updateGangName(gangId, newName));
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return timed("createGang", () -> delegate().createGang(gang));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        return timed("getGangById", () -> delegate().getGangById(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        return timed("getGangByName", () -> delegate().getGangByName(name));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        return timed("getGangByLeader", () -> delegate().getGangByLeader(leaderUuid));
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        return timed("getAllGangs", () -> delegate().getAllGangs());
+    }
+
+    @Override
+    public CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit) {
+        return timed("listGangs", () -> delegate().listGangs(sort, after, limit));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return timed("updateGang", () -> delegate().updateGang(gang));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return timed("deleteGang", () -> delegate().deleteGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return timed("disbandGang", () -> delegate().disbandGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return timed("addGangMember", () -> delegate().addGangMember(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return timed("acceptInvite", () -> delegate().acceptInvite(playerUuid, gangId));
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return timed("kickMember", () -> delegate().kickMember(gangId, leaderUuid, targetUuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return timed("removeGangMember", () -> delegate().removeGangMember(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        return timed("getGangMembers", () -> delegate().getGangMembers(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        return timed("getPlayerGangId", () -> delegate().getPlayerGangId(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        return timed("addInvite", () -> delegate().addInvite(invite));
+    }
+
+    @Override
+    public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) {
+        return timed("getInvite", () -> delegate().getInvite(invitedPlayerUuid));
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getAllInvites() {
+        return timed("getAllInvites", () -> delegate().getAllInvites());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        return timed("removeInvite", () -> delegate().removeInvite(invitedPlayerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        return timed("removeInvite(gang)", () -> delegate().removeInvite(invitedPlayerUuid, gangId));
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        return timed("removeExpiredInvites", () -> delegate().removeExpiredInvites(expiryTimestamp));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        return timed("isMember", () -> delegate().isMember(gangId, playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        return timed("getPlayerGangAsync", () -> delegate().getPlayerGangAsync(playerUuid));
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return timed("applyMutations", () -> delegate().applyMutations(mutations));
+    }
+}
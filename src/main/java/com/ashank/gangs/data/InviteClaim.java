@@ -0,0 +1,20 @@
+package com.ashank.gangs.data;
+
+import java.util.List;
+
+/**
+ * An invite taken by {@link InviteStore#claimInvite(java.util.UUID, java.util.UUID)}.
+ * {@code withdrawn} holds every invite of the player that was taken with it, the claimed
+ * one included, so they can be handed back if joining the gang fails.
+ */
+public record InviteClaim(
+        PendingInvite invite,
+        List<PendingInvite> withdrawn
+) {
+    /**
+     * @return the withdrawn invites other than the claimed one
+     */
+    public List<PendingInvite> others() {
+        return withdrawn.stream().filter(other -> other != invite).toList();
+    }
+}
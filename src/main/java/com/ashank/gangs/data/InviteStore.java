@@ -0,0 +1,41 @@
+package com.ashank.gangs.data;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Holds pending gang invites. A player may have invites from several gangs at once, at most
+ * one per gang; invites expire a fixed time after they were sent.
+ */
+public interface InviteStore {
+
+    CompletableFuture<Void> initialize();
+
+    /**
+     * Stores the invite, replacing an earlier invite of the same player to the same gang.
+     */
+    CompletableFuture<Void> addInvite(PendingInvite invite);
+
+    /**
+     * @return the unexpired invites of the player, oldest first
+     */
+    CompletableFuture<List<PendingInvite>> getInvites(UUID invitedPlayerUuid);
+
+    /**
+     * If the player has an unexpired invite to the gang, withdraws all of the player's invites
+     * and returns them with that one. Only one caller can claim a given invite. Stored invites
+     * are left for {@link Storage#acceptInvite(UUID, UUID)} to remove with the join, so a
+     * claim that does not end in a join can be undone with {@link #restoreInvites(List)}.
+     */
+    CompletableFuture<Optional<InviteClaim>> claimInvite(UUID invitedPlayerUuid, UUID gangId);
+
+    /**
+     * Puts back invites withdrawn by a claim, unless the player has since been sent a new
+     * invite by the same gang.
+     */
+    void restoreInvites(List<PendingInvite> invites);
+
+    void close();
+}
@@ -0,0 +1,850 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Shared SQL implementation of {@link Storage} for the JDBC backends. The queries are plain
+ * SQL understood by both SQLite and MySQL; subclasses decide which connection and thread
+ * each call runs on.
+ */
+public abstract class JdbcStorage implements Storage {
+
+    // gangs.member_count is a copy of the member total, kept so gangs can be listed by size
+    private static final String RECOUNT_MEMBERS =
+            "UPDATE gangs SET member_count = (SELECT COUNT(*) FROM gang_members WHERE gang_id = ?) WHERE id = ?";
+    // storage_meta 'gang_count' holds the number of gangs, recounted only when one is created or removed
+    private static final String RECOUNT_GANGS =
+            "UPDATE storage_meta SET meta_value = (SELECT COUNT(*) FROM gangs) WHERE meta_key = 'gang_count'";
+
+    protected JavaPlugin plugin;
+    protected volatile UuidFormat uuidFormat = UuidFormat.TEXT;
+    private StorageMetrics metrics;
+
+    /**
+     * Runs a query that does not modify data.
+     */
+    protected abstract <T> CompletableFuture<T> read(Function<Connection, T> query);
+
+    /**
+     * Runs a statement that modifies data.
+     */
+    protected abstract <T> CompletableFuture<T> write(Function<Connection, T> statement);
+
+    /**
+     * @return whether the statement failed because it would have duplicated a unique key
+     */
+    protected abstract boolean isDuplicateKey(SQLException e);
+
+    /**
+     * @return whether the statement failed on the data it was given, such as a constraint it
+     *         breaks, so running it again can only fail the same way
+     */
+    protected boolean isDataError(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLIntegrityConstraintViolationException || e instanceof SQLDataException
+                || state != null && (state.startsWith("22") || state.startsWith("23"));
+    }
+
+    /**
+     * @return whether a failed write failed on its data, going by the first SQL error in its causes
+     */
+    boolean isPermanentFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException e) {
+                return isDataError(e);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enables {@link #recordWait}. Call before {@link #initialize}.
+     */
+    void setMetrics(StorageMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records the time since {@code startNanos} as a wait for a connection, if metrics are on.
+     */
+    protected void recordWait(String name, long startNanos) {
+        if (metrics != null) {
+            metrics.recordWait(name, System.nanoTime() - startNanos);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        return read(conn -> {
+            String sql = "SELECT 1 FROM gangs WHERE name_lower = ? LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, Gang.normalizeName(name));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to check if gang name is taken", e);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return write(conn -> {
+            String sql = "UPDATE gangs SET name = ?, name_lower = ? WHERE id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, newName);
+                stmt.setString(2, Gang.normalizeName(newName));
+                uuidFormat.bind(stmt, 3, gangId);
+                int affected = stmt.executeUpdate();
+                return affected > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Failed to update gang name", e);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return createGang(gang, System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang, long createdAt) {
+        return transaction("create gang: " + gang.getName(), (conn, batch) -> {
+            applyMutation(batch, new GangMutation.CreateGang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(),
+                    gang.getDescription(), createdAt));
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        return read(conn -> {
+            String sql = GangRowMapper.SELECT_WITH_MEMBERS + "WHERE g.id = ?" + GangRowMapper.ORDER_BY;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, gangId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Gang> gangs = GangRowMapper.readGangs(rs, uuidFormat);
+                    if (!gangs.isEmpty()) {
+                        return Optional.of(gangs.get(0));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve gang by ID: " + gangId, e);
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        return read(conn -> {
+            String sql = GangRowMapper.SELECT_WITH_MEMBERS + "WHERE g.name_lower = ?" + GangRowMapper.ORDER_BY;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, Gang.normalizeName(name));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Gang> gangs = GangRowMapper.readGangs(rs, uuidFormat);
+                    if (!gangs.isEmpty()) {
+                        return Optional.of(gangs.get(0));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve gang by name: " + name, e);
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        return read(conn -> {
+            String sql = GangRowMapper.SELECT_WITH_MEMBERS + "WHERE g.leader_uuid = ?" + GangRowMapper.ORDER_BY;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, leaderUuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Gang> gangs = GangRowMapper.readGangs(rs, uuidFormat);
+                    if (!gangs.isEmpty()) {
+                        return Optional.of(gangs.get(0));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve gang by leader UUID: " + leaderUuid, e);
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        return read(conn -> {
+            String sql = GangRowMapper.SELECT_WITH_MEMBERS + GangRowMapper.ORDER_BY;
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                return GangRowMapper.readGangs(rs, uuidFormat);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve all gangs", e);
+            }
+            return new ArrayList<>();
+        });
+    }
+
+    @Override
+    public CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit) {
+        return read(conn -> {
+            // Every order has an index, including member_count, which is kept up to date by
+            // each membership change, and the total is one stored row, so a page reads only
+            // its own rows
+            StringBuilder sql = new StringBuilder("SELECT g.id, g.name, g.leader_uuid, g.created_at, g.member_count FROM gangs g ");
+            if (after != null) {
+                sql.append(switch (sort) {
+                    case NAME -> "WHERE g.name_lower > ? ";
+                    case SIZE -> "WHERE (g.member_count < ? OR (g.member_count = ? AND g.id > ?)) ";
+                    case CREATED -> "WHERE (g.created_at > ? OR (g.created_at = ? AND g.id > ?)) ";
+                });
+            }
+            sql.append(switch (sort) {
+                case NAME -> "ORDER BY g.name_lower";
+                case SIZE -> "ORDER BY g.member_count DESC, g.id";
+                case CREATED -> "ORDER BY g.created_at, g.id";
+            });
+            sql.append(" LIMIT ?");
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                if (after != null) {
+                    switch (sort) {
+                        case NAME -> stmt.setString(index++, Gang.normalizeName(after.name()));
+                        case SIZE -> {
+                            stmt.setInt(index++, after.memberCount());
+                            stmt.setInt(index++, after.memberCount());
+                            uuidFormat.bind(stmt, index++, after.gangId());
+                        }
+                        case CREATED -> {
+                            stmt.setLong(index++, after.createdAt());
+                            stmt.setLong(index++, after.createdAt());
+                            uuidFormat.bind(stmt, index++, after.gangId());
+                        }
+                    }
+                }
+                stmt.setInt(index, limit);
+
+                List<GangSummary> gangs = new ArrayList<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        gangs.add(new GangSummary(uuidFormat.read(rs, "id"), rs.getString("name"),
+                                uuidFormat.read(rs, "leader_uuid"), rs.getInt("member_count"), rs.getLong("created_at")));
+                    }
+                }
+                int total;
+                try (PreparedStatement count = conn.prepareStatement("SELECT meta_value FROM storage_meta WHERE meta_key = 'gang_count'");
+                     ResultSet rs = count.executeQuery()) {
+                    total = rs.next() ? Integer.parseInt(rs.getString(1)) : 0;
+                }
+                return new GangPage(gangs, total);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not list gangs by " + sort.key(), e);
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return write(conn -> {
+            String sql = "UPDATE gangs SET name = ?, description = ?, leader_uuid = ?, name_lower = ? WHERE id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, gang.getName());
+                stmt.setString(2, gang.getDescription());
+                uuidFormat.bind(stmt, 3, gang.getLeaderUuid());
+                stmt.setString(4, Gang.normalizeName(gang.getName()));
+                uuidFormat.bind(stmt, 5, gang.getGangId());
+                int rowsAffected = stmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not update gang: " + gang.getName(), e);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return transaction("delete gang: " + gangId, (conn, batch) -> {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM gangs WHERE id = ?")) {
+                uuidFormat.bind(stmt, 1, gangId);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            batch.gangsChanged();
+            return true;
+        }).exceptionally(e -> false);
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return transaction("disband gang: " + gangId, (conn, batch) -> {
+            Set<UUID> members = new HashSet<>();
+            UUID leaderUuid = selectLeader(conn, gangId);
+            if (leaderUuid == null) {
+                return members;
+            }
+            members.add(leaderUuid);
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT player_uuid FROM gang_members WHERE gang_id = ?")) {
+                uuidFormat.bind(stmt, 1, gangId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        members.add(uuidFormat.read(rs, "player_uuid"));
+                    }
+                }
+            }
+            applyMutation(batch, new GangMutation.DisbandGang(gangId));
+            return members;
+        });
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return transaction("accept invite of " + playerUuid + " to gang " + gangId, (conn, batch) -> {
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM gang_members WHERE player_uuid = ? LIMIT 1")) {
+                uuidFormat.bind(stmt, 1, playerUuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return AcceptInviteResult.of(AcceptInviteResult.Status.ALREADY_IN_GANG);
+                    }
+                }
+            }
+            Gang gang;
+            try (PreparedStatement stmt = conn.prepareStatement(GangRowMapper.SELECT_WITH_MEMBERS + "WHERE g.id = ?" + GangRowMapper.ORDER_BY)) {
+                uuidFormat.bind(stmt, 1, gangId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Gang> gangs = GangRowMapper.readGangs(rs, uuidFormat);
+                    gang = gangs.isEmpty() ? null : gangs.get(0);
+                }
+            }
+            if (gang == null) {
+                return AcceptInviteResult.of(AcceptInviteResult.Status.GANG_NOT_FOUND);
+            }
+            // Two accepts can both pass the check above; the unique index on player_uuid lets only one insert
+            if (!insertMember(batch, gangId, playerUuid)) {
+                return AcceptInviteResult.of(AcceptInviteResult.Status.ALREADY_IN_GANG);
+            }
+            PreparedStatement invites = batch.next("DELETE FROM invites WHERE invited_uuid = ?");
+            uuidFormat.bind(invites, 1, playerUuid);
+            invites.addBatch();
+            gang.addMember(playerUuid);
+            return new AcceptInviteResult(AcceptInviteResult.Status.ACCEPTED, gang);
+        });
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return transaction("kick " + targetUuid + " from gang " + gangId, (conn, batch) -> {
+            UUID actualLeader = selectLeader(conn, gangId);
+            if (actualLeader == null) {
+                return KickResult.GANG_NOT_FOUND;
+            }
+            if (!actualLeader.equals(leaderUuid)) {
+                return KickResult.NOT_LEADER;
+            }
+            if (actualLeader.equals(targetUuid)) {
+                return KickResult.TARGET_IS_LEADER;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM gang_members WHERE gang_id = ? AND player_uuid = ?")) {
+                uuidFormat.bind(stmt, 1, gangId);
+                uuidFormat.bind(stmt, 2, targetUuid);
+                if (stmt.executeUpdate() == 0) {
+                    return KickResult.NOT_MEMBER;
+                }
+            }
+            batch.membersChanged(gangId);
+            return KickResult.KICKED;
+        });
+    }
+
+    private UUID selectLeader(Connection conn, UUID gangId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT leader_uuid FROM gangs WHERE id = ?")) {
+            uuidFormat.bind(stmt, 1, gangId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? uuidFormat.read(rs, "leader_uuid") : null;
+            }
+        }
+    }
+
+    /**
+     * Fails with {@link IllegalStateException} if the player is already in another gang;
+     * adding a player to the gang they are in does nothing.
+     */
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return transaction("add member " + playerUuid + " to gang " + gangId, (conn, batch) -> {
+            if (!insertMember(batch, gangId, playerUuid) && !gangId.equals(selectPlayerGang(conn, playerUuid))) {
+                throw new IllegalStateException(playerUuid + " is already in a gang");
+            }
+            return null;
+        });
+    }
+
+    private UUID selectPlayerGang(Connection conn, UUID playerUuid) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT gang_id FROM gang_members WHERE player_uuid = ?")) {
+            uuidFormat.bind(stmt, 1, playerUuid);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? uuidFormat.read(rs, "gang_id") : null;
+            }
+        }
+    }
+
+    /**
+     * Inserts a membership straight away, after whatever was batched before it. A plain
+     * insert, so the unique index on player_uuid rejects a player who is already in a gang
+     * instead of quietly moving them out of it.
+     *
+     * @return false if the player already had a membership, which is left as it is
+     */
+    private boolean insertMember(StatementBatch batch, UUID gangId, UUID playerUuid) throws SQLException {
+        PreparedStatement stmt = batch.immediate("INSERT INTO gang_members (gang_id, player_uuid) VALUES (?, ?)");
+        uuidFormat.bind(stmt, 1, gangId);
+        uuidFormat.bind(stmt, 2, playerUuid);
+        try {
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                return false;
+            }
+            throw e;
+        }
+        batch.membersChanged(gangId);
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return transaction("remove member " + playerUuid + " from gang " + gangId, (conn, batch) -> {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM gang_members WHERE gang_id = ? AND player_uuid = ?")) {
+                uuidFormat.bind(stmt, 1, gangId);
+                uuidFormat.bind(stmt, 2, playerUuid);
+                if (stmt.executeUpdate() == 0) {
+                    return false;
+                }
+            }
+            batch.membersChanged(gangId);
+            return true;
+        }).exceptionally(e -> false);
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        return read(conn -> {
+            String sql = "SELECT player_uuid FROM gang_members WHERE gang_id = ?";
+            Set<UUID> members = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, gangId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        members.add(uuidFormat.read(rs, "player_uuid"));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve members for gang: " + gangId, e);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.SEVERE, "Invalid UUID format in gang_members table for gang: " + gangId, e);
+            }
+            return members;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        return read(conn -> {
+            String sql = "SELECT gang_id FROM gang_members WHERE player_uuid = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, playerUuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(uuidFormat.read(rs, "gang_id"));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve gang for player: " + playerUuid, e);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.SEVERE, "Invalid UUID format in gang_members table for player: " + playerUuid, e);
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        return write(conn -> {
+            String sql = "REPLACE INTO invites (invited_uuid, gang_id, inviter_uuid, timestamp) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, invite.invitedPlayerUuid());
+                uuidFormat.bind(stmt, 2, invite.gangId());
+                uuidFormat.bind(stmt, 3, invite.inviterUuid());
+                stmt.setLong(4, invite.timestamp());
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not add invite for player: " + invite.invitedPlayerUuid(), e);
+                throw new RuntimeException(e);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) {
+        return read(conn -> {
+            String sql = "SELECT invited_uuid, gang_id, inviter_uuid, timestamp FROM invites WHERE invited_uuid = ? ORDER BY timestamp DESC LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, invitedPlayerUuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToPendingInvite(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve invite for player: " + invitedPlayerUuid, e);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().log(Level.SEVERE, "Invalid UUID format in invites table for player: " + invitedPlayerUuid, e);
+            }
+            return Optional.empty();
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getAllInvites() {
+        return read(conn -> {
+            List<PendingInvite> invites = new ArrayList<>();
+            String sql = "SELECT invited_uuid, gang_id, inviter_uuid, timestamp FROM invites";
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    invites.add(mapResultSetToPendingInvite(rs));
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve invites", e);
+            }
+            return invites;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        return write(conn -> {
+            String sql = "DELETE FROM invites WHERE invited_uuid = ? AND gang_id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, invitedPlayerUuid);
+                uuidFormat.bind(stmt, 2, gangId);
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not remove invite for player: " + invitedPlayerUuid, e);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        return write(conn -> {
+            String sql = "DELETE FROM invites WHERE invited_uuid = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, invitedPlayerUuid);
+                int rowsAffected = stmt.executeUpdate();
+                return rowsAffected > 0;
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not remove invite for player: " + invitedPlayerUuid, e);
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        return write(conn -> {
+            String sql = "DELETE FROM invites WHERE timestamp < ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, expiryTimestamp);
+                return stmt.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not remove expired invites", e);
+                return 0;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        return read(conn -> {
+            String sql = "SELECT COUNT(*) FROM gang_members WHERE gang_id = ? AND player_uuid = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                uuidFormat.bind(stmt, 1, gangId);
+                uuidFormat.bind(stmt, 2, playerUuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt(1) > 0;
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not check membership for player: " + playerUuid + " in gang: " + gangId, e);
+            }
+            return false;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        return getPlayerGangId(playerUuid).thenCompose(gangIdOpt -> {
+            if (gangIdOpt.isPresent()) {
+                return getGangById(gangIdOpt.get());
+            } else {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return transaction("apply batch of " + mutations.size() + " gang mutations", (conn, batch) -> {
+            for (GangMutation mutation : mutations) {
+                applyMutation(batch, mutation);
+            }
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run(Connection conn, StatementBatch batch) throws SQLException;
+    }
+
+    /**
+     * Runs {@code work} on the write connection in one transaction. Statements queued on the
+     * batch are executed before the commit; any failure rolls everything back.
+     */
+    private <T> CompletableFuture<T> transaction(String description, TransactionWork<T> work) {
+        return write(conn -> {
+            try {
+                boolean autoCommit = conn.getAutoCommit();
+                conn.setAutoCommit(false);
+                try (StatementBatch batch = new StatementBatch(conn)) {
+                    T result = work.run(conn, batch);
+                    for (UUID gangId : batch.changedGangs()) {
+                        PreparedStatement recount = batch.next(RECOUNT_MEMBERS);
+                        uuidFormat.bind(recount, 1, gangId);
+                        uuidFormat.bind(recount, 2, gangId);
+                        recount.addBatch();
+                    }
+                    if (batch.recountGangs()) {
+                        batch.next(RECOUNT_GANGS).addBatch();
+                    }
+                    batch.flush();
+                    conn.commit();
+                    return result;
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not " + description, e);
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private void applyMutation(StatementBatch batch, GangMutation mutation) throws SQLException {
+        switch (mutation) {
+            case GangMutation.CreateGang m -> {
+                PreparedStatement stmt = batch.next("INSERT INTO gangs (id, name, leader_uuid, description, name_lower, created_at) VALUES (?, ?, ?, ?, ?, ?)");
+                uuidFormat.bind(stmt, 1, m.gangId());
+                stmt.setString(2, m.name());
+                uuidFormat.bind(stmt, 3, m.leaderUuid());
+                stmt.setString(4, m.description());
+                stmt.setString(5, Gang.normalizeName(m.name()));
+                stmt.setLong(6, m.createdAt());
+                stmt.addBatch();
+                batch.gangsChanged();
+            }
+            case GangMutation.UpdateGang m -> {
+                PreparedStatement stmt = batch.next("UPDATE gangs SET name = ?, description = ?, leader_uuid = ?, name_lower = ? WHERE id = ?");
+                stmt.setString(1, m.name());
+                stmt.setString(2, m.description());
+                uuidFormat.bind(stmt, 3, m.leaderUuid());
+                stmt.setString(4, Gang.normalizeName(m.name()));
+                uuidFormat.bind(stmt, 5, m.gangId());
+                stmt.addBatch();
+            }
+            case GangMutation.RenameGang m -> {
+                PreparedStatement stmt = batch.next("UPDATE gangs SET name = ?, name_lower = ? WHERE id = ?");
+                stmt.setString(1, m.newName());
+                stmt.setString(2, Gang.normalizeName(m.newName()));
+                uuidFormat.bind(stmt, 3, m.gangId());
+                stmt.addBatch();
+            }
+            case GangMutation.DeleteGang m -> {
+                PreparedStatement members = batch.next("DELETE FROM gang_members WHERE gang_id = ?");
+                uuidFormat.bind(members, 1, m.gangId());
+                members.addBatch();
+                PreparedStatement stmt = batch.next("DELETE FROM gangs WHERE id = ?");
+                uuidFormat.bind(stmt, 1, m.gangId());
+                stmt.addBatch();
+                batch.gangsChanged();
+            }
+            case GangMutation.DisbandGang m -> {
+                for (String sql : List.of(
+                        "DELETE FROM invites WHERE gang_id = ?",
+                        "DELETE FROM gang_members WHERE gang_id = ?",
+                        "DELETE FROM gangs WHERE id = ?")) {
+                    PreparedStatement stmt = batch.next(sql);
+                    uuidFormat.bind(stmt, 1, m.gangId());
+                    stmt.addBatch();
+                }
+                batch.gangsChanged();
+            }
+            case GangMutation.AcceptInvite m -> {
+                if (!insertMember(batch, m.gangId(), m.playerUuid())) {
+                    plugin.getLogger().warning("Skipping invite accept of " + m.playerUuid() + " to gang " + m.gangId() + ": already in a gang");
+                    return;
+                }
+                PreparedStatement invite = batch.next("DELETE FROM invites WHERE invited_uuid = ?");
+                uuidFormat.bind(invite, 1, m.playerUuid());
+                invite.addBatch();
+            }
+            case GangMutation.AddMember m -> {
+                if (!insertMember(batch, m.gangId(), m.playerUuid())) {
+                    plugin.getLogger().warning("Skipping add of " + m.playerUuid() + " to gang " + m.gangId() + ": already in a gang");
+                }
+            }
+            case GangMutation.RemoveMember m -> {
+                PreparedStatement stmt = batch.next("DELETE FROM gang_members WHERE gang_id = ? AND player_uuid = ?");
+                uuidFormat.bind(stmt, 1, m.gangId());
+                uuidFormat.bind(stmt, 2, m.playerUuid());
+                stmt.addBatch();
+                batch.membersChanged(m.gangId());
+            }
+            case GangMutation.AddInvite m -> {
+                PreparedStatement stmt = batch.next("REPLACE INTO invites (invited_uuid, gang_id, inviter_uuid, timestamp) VALUES (?, ?, ?, ?)");
+                uuidFormat.bind(stmt, 1, m.invite().invitedPlayerUuid());
+                uuidFormat.bind(stmt, 2, m.invite().gangId());
+                uuidFormat.bind(stmt, 3, m.invite().inviterUuid());
+                stmt.setLong(4, m.invite().timestamp());
+                stmt.addBatch();
+            }
+            case GangMutation.RemoveInvites m -> {
+                PreparedStatement stmt = batch.next("DELETE FROM invites WHERE invited_uuid = ?");
+                uuidFormat.bind(stmt, 1, m.invitedPlayerUuid());
+                stmt.addBatch();
+            }
+            case GangMutation.RemoveInvite m -> {
+                PreparedStatement stmt = batch.next("DELETE FROM invites WHERE invited_uuid = ? AND gang_id = ?");
+                uuidFormat.bind(stmt, 1, m.invitedPlayerUuid());
+                uuidFormat.bind(stmt, 2, m.gangId());
+                stmt.addBatch();
+            }
+        }
+    }
+
+    private PendingInvite mapResultSetToPendingInvite(ResultSet rs) throws SQLException {
+        return new PendingInvite(
+                uuidFormat.read(rs, "invited_uuid"),
+                uuidFormat.read(rs, "gang_id"),
+                uuidFormat.read(rs, "inviter_uuid"),
+                rs.getLong("timestamp")
+        );
+    }
+
+    /**
+     * Groups consecutive uses of the same statement into one JDBC batch, so runs of similar
+     * mutations go to the database together while their order is kept.
+     */
+    private static final class StatementBatch implements AutoCloseable {
+
+        private final Connection conn;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private PreparedStatement pending;
+        private final Set<UUID> changedGangs = new LinkedHashSet<>();
+        private boolean recountGangs;
+
+        StatementBatch(Connection conn) {
+            this.conn = conn;
+        }
+
+        /**
+         * Returns the statement for {@code sql}, first executing the pending batch if it
+         * belongs to a different statement. Callers bind parameters and call {@code addBatch}.
+         */
+        PreparedStatement next(String sql) throws SQLException {
+            PreparedStatement stmt = prepared(sql);
+            if (pending != null && pending != stmt) {
+                flush();
+            }
+            pending = stmt;
+            return stmt;
+        }
+
+        /**
+         * Returns the statement for {@code sql} to execute on its own, first executing the
+         * pending batch so it runs after everything queued before it.
+         */
+        PreparedStatement immediate(String sql) throws SQLException {
+            flush();
+            return prepared(sql);
+        }
+
+        private PreparedStatement prepared(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                stmt = conn.prepareStatement(sql);
+                statements.put(sql, stmt);
+            }
+            return stmt;
+        }
+
+        /**
+         * Marks the gang's member count for recounting before the transaction commits.
+         */
+        void membersChanged(UUID gangId) {
+            changedGangs.add(gangId);
+        }
+
+        /**
+         * Marks the stored gang count for recounting before the transaction commits.
+         */
+        void gangsChanged() {
+            recountGangs = true;
+        }
+
+        boolean recountGangs() {
+            return recountGangs;
+        }
+
+        Set<UUID> changedGangs() {
+            return changedGangs;
+        }
+
+        void flush() throws SQLException {
+            if (pending != null) {
+                pending.executeBatch();
+                pending = null;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * {@link MemoryStorage} made durable by a {@link GangJournal}: every change is applied in
+ * memory and appended to the journal as a small binary record, so writes are sequential
+ * appends rather than random database updates. Reads see a change immediately; the
+ * returned future completes once its record has been synced to disk.
+ * <p>
+ * Records describe the change made rather than the call, for example a kick is recorded
+ * as the member's removal, so replaying them needs none of the original checks. If a
+ * record cannot be written the storage turns read-only until restarted, and the next start
+ * recovers the state from before that change.
+ */
+public class JournalStorage extends MemoryStorage {
+
+    private static final byte CREATE_GANG = 1;
+    private static final byte RENAME_GANG = 2;
+    private static final byte UPDATE_GANG = 3;
+    private static final byte REMOVE_GANG = 4;
+    private static final byte ADD_MEMBER = 5;
+    private static final byte ACCEPT_INVITE = 6;
+    private static final byte REMOVE_MEMBER = 7;
+    private static final byte ADD_INVITE = 8;
+    private static final byte REMOVE_INVITES = 9;
+    private static final byte REMOVE_INVITE = 10;
+    private static final byte EXPIRE_INVITES = 11;
+
+    private final String directory;
+    private final long compactAfterBytes;
+    private StorageMetrics metrics;
+    private JavaPlugin plugin;
+    private GangJournal journal;
+
+    /**
+     * @param directory journal directory, relative to the plugin folder
+     * @param compactAfterBytes segment size after which the journal is compacted into a snapshot
+     */
+    public JournalStorage(String directory, long compactAfterBytes) {
+        super(null, 0);
+        this.directory = directory;
+        this.compactAfterBytes = compactAfterBytes;
+    }
+
+    /**
+     * Records fsync times as a wait. Call before {@link #initialize}.
+     */
+    void setMetrics(StorageMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        journal = new GangJournal(new File(plugin.getDataFolder(), directory).toPath(), compactAfterBytes, writeLock, plugin.getLogger());
+        journal.setMetrics(metrics);
+        try {
+            long start = System.nanoTime();
+            long replayed = journal.open(this::restore, this::replay, this::capture);
+            plugin.getLogger().info("Loaded " + capture().gangs().size() + " gangs from the journal, replaying "
+                    + replayed + " records in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (IOException e) {
+            // Starting without the journalled state would lose it at the next compaction
+            plugin.getLogger().log(Level.SEVERE, "Could not recover gang journal " + directory, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Snapshots are written by the journal when it compacts, never on their own.
+     */
+    @Override
+    public boolean saveSnapshot() {
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return journaled(() -> super.updateGangName(gangId, newName), out -> {
+            out.writeByte(RENAME_GANG);
+            writeUuid(out, gangId);
+            out.writeUTF(newName);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return createGang(gang, System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang, long createdAt) {
+        return journaled(() -> super.createGang(gang, createdAt), out -> {
+            out.writeByte(CREATE_GANG);
+            writeUuid(out, gang.getGangId());
+            out.writeUTF(gang.getName());
+            writeUuid(out, gang.getLeaderUuid());
+            writeDescription(out, gang.getDescription());
+            out.writeLong(createdAt);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return journaled(() -> super.updateGang(gang), out -> {
+            out.writeByte(UPDATE_GANG);
+            writeUuid(out, gang.getGangId());
+            out.writeUTF(gang.getName());
+            writeUuid(out, gang.getLeaderUuid());
+            writeDescription(out, gang.getDescription());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return journaled(() -> super.deleteGang(gangId), out -> {
+            out.writeByte(REMOVE_GANG);
+            writeUuid(out, gangId);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return journaled(() -> super.disbandGang(gangId), out -> {
+            out.writeByte(REMOVE_GANG);
+            writeUuid(out, gangId);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return journaled(() -> super.addGangMember(gangId, playerUuid), out -> {
+            out.writeByte(ADD_MEMBER);
+            writeUuid(out, gangId);
+            writeUuid(out, playerUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return journaled(() -> super.acceptInvite(playerUuid, gangId), out -> {
+            out.writeByte(ACCEPT_INVITE);
+            writeUuid(out, gangId);
+            writeUuid(out, playerUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return journaled(() -> super.kickMember(gangId, leaderUuid, targetUuid), out -> {
+            out.writeByte(REMOVE_MEMBER);
+            writeUuid(out, gangId);
+            writeUuid(out, targetUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return journaled(() -> super.removeGangMember(gangId, playerUuid), out -> {
+            out.writeByte(REMOVE_MEMBER);
+            writeUuid(out, gangId);
+            writeUuid(out, playerUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        return journaled(() -> super.addInvite(invite), out -> {
+            out.writeByte(ADD_INVITE);
+            writeUuid(out, invite.invitedPlayerUuid());
+            writeUuid(out, invite.gangId());
+            writeUuid(out, invite.inviterUuid());
+            out.writeLong(invite.timestamp());
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        return journaled(() -> super.removeInvite(invitedPlayerUuid), out -> {
+            out.writeByte(REMOVE_INVITES);
+            writeUuid(out, invitedPlayerUuid);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        return journaled(() -> super.removeInvite(invitedPlayerUuid, gangId), out -> {
+            out.writeByte(REMOVE_INVITE);
+            writeUuid(out, invitedPlayerUuid);
+            writeUuid(out, gangId);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        return journaled(() -> super.removeExpiredInvites(expiryTimestamp), out -> {
+            out.writeByte(EXPIRE_INVITES);
+            out.writeLong(expiryTimestamp);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        // Apply the whole batch before waiting on the journal, so it shares one fsync
+        synchronized (writeLock) {
+            List<CompletableFuture<Void>> applied = new ArrayList<>(mutations.size());
+            for (GangMutation mutation : mutations) {
+                // Joining and dropping the player's invites is one change with one record, not two calls
+                applied.add(mutation instanceof GangMutation.AcceptInvite m
+                        ? acceptInvite(m.playerUuid(), m.gangId()).thenApply(result -> null)
+                        : Storage.applySequentially(this, List.of(mutation)));
+            }
+            return CompletableFuture.allOf(applied.toArray(CompletableFuture[]::new));
+        }
+    }
+
+    /**
+     * Applies the change and, if it changed anything, appends its record in the same
+     * critical section, so the journal holds changes in the order they were applied.
+     * <p>
+     * Once a journal write has failed, the storage is read-only: the journal has stopped,
+     * so a change applied now could never be stored, and refusing it keeps memory from
+     * drifting further from what the next start recovers.
+     */
+    private <T> CompletableFuture<T> journaled(Supplier<CompletableFuture<T>> change, GangJournal.RecordWriter record) {
+        synchronized (writeLock) {
+            if (journal.isFailed()) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Gang storage is read-only after a journal write failed"));
+            }
+            long before = changeCount();
+            CompletableFuture<T> result = change.get();
+            if (changeCount() == before) {
+                return result;
+            }
+            return result.thenCombine(journal.append(record), (value, durable) -> value);
+        }
+    }
+
+    private void replay(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        CompletableFuture<?> result = switch (type) {
+            case CREATE_GANG -> {
+                UUID gangId = readUuid(in);
+                String name = in.readUTF();
+                UUID leader = readUuid(in);
+                String description = readDescription(in);
+                Set<UUID> members = new HashSet<>();
+                members.add(leader);
+                yield super.createGang(new Gang(gangId, name, leader, members, description), in.readLong());
+            }
+            case RENAME_GANG -> super.updateGangName(readUuid(in), in.readUTF());
+            case UPDATE_GANG -> {
+                UUID gangId = readUuid(in);
+                String name = in.readUTF();
+                UUID leader = readUuid(in);
+                Set<UUID> members = new HashSet<>();
+                members.add(leader);
+                yield super.updateGang(new Gang(gangId, name, leader, members, readDescription(in)));
+            }
+            case REMOVE_GANG -> super.disbandGang(readUuid(in));
+            case ADD_MEMBER -> super.addGangMember(readUuid(in), readUuid(in));
+            case ACCEPT_INVITE -> {
+                UUID gangId = readUuid(in);
+                yield super.acceptInvite(readUuid(in), gangId);
+            }
+            case REMOVE_MEMBER -> super.removeGangMember(readUuid(in), readUuid(in));
+            case ADD_INVITE -> super.addInvite(new PendingInvite(readUuid(in), readUuid(in), readUuid(in), in.readLong()));
+            case REMOVE_INVITES -> super.removeInvite(readUuid(in));
+            case REMOVE_INVITE -> super.removeInvite(readUuid(in), readUuid(in));
+            case EXPIRE_INVITES -> super.removeExpiredInvites(in.readLong());
+            default -> throw new IOException("Unknown journal record type " + type);
+        };
+        if (result.isCompletedExceptionally()) {
+            // Replayed records were valid when written; one that fails now changes nothing
+            plugin.getLogger().warning("Skipped journal record " + type + " that no longer applies");
+        }
+    }
+
+    private static void writeDescription(DataOutputStream out, String description) throws IOException {
+        out.writeBoolean(description != null);
+        if (description != null) {
+            out.writeUTF(description);
+        }
+    }
+
+    private static String readDescription(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
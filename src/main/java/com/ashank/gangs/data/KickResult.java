@@ -0,0 +1,12 @@
+package com.ashank.gangs.data;
+
+/**
+ * Outcome of {@link Storage#kickMember(java.util.UUID, java.util.UUID, java.util.UUID)}.
+ */
+public enum KickResult {
+    KICKED,
+    GANG_NOT_FOUND,
+    NOT_LEADER,
+    TARGET_IS_LEADER,
+    NOT_MEMBER
+}
@@ -0,0 +1,290 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Read-only storage for lobby and hub servers that only show gangs. Every read is served
+ * from a {@link GangMapFile} exported by the server that owns the gang data, so these
+ * servers need no database connection. The file is checked for a new export every poll
+ * interval and swapped in without blocking reads; a call always sees one export throughout.
+ * <p>
+ * Every change fails with {@link UnsupportedOperationException}. Invites are never stored,
+ * so invite lookups find nothing.
+ */
+public class MappedStorage implements Storage {
+
+    private final String fileName;
+    private final long pollIntervalSeconds;
+    private volatile GangMapFile map;
+    private JavaPlugin plugin;
+    private Path file;
+    private ScheduledExecutorService poller;
+    // Only touched by initialize and the poller
+    private FileTime loadedModified;
+    private long loadedSize = -1;
+
+    /**
+     * @param fileName exported gang map, relative to the plugin folder or absolute
+     * @param pollIntervalSeconds how often to check the file for a new export, or 0 to never reload
+     */
+    public MappedStorage(String fileName, long pollIntervalSeconds) {
+        this.fileName = fileName;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.file = GangMapFile.resolve(plugin.getDataFolder(), fileName);
+        // Nothing here can be lost, so a missing or damaged export only means waiting for the next one
+        if (reload() && map != null) {
+            plugin.getLogger().info("Loaded gang map " + file + " with " + map.gangCount() + " gangs and "
+                    + map.playerCount() + " members");
+        } else if (map == null) {
+            plugin.getLogger().warning("No gang map loaded from " + file + "; no gangs are shown until one is exported");
+        }
+        if (pollIntervalSeconds > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Gangs Map Reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::reload, pollIntervalSeconds, pollIntervalSeconds, TimeUnit.SECONDS);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        map = null;
+    }
+
+    /**
+     * Maps the file again if it changed since it was last loaded. A file that cannot be
+     * loaded is reported once and the current export kept.
+     *
+     * @return whether a new export was swapped in
+     */
+    boolean reload() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not check gang map " + file, e);
+            return false;
+        }
+        if (attributes.lastModifiedTime().equals(loadedModified) && attributes.size() == loadedSize) {
+            return false;
+        }
+        loadedModified = attributes.lastModifiedTime();
+        loadedSize = attributes.size();
+        try {
+            GangMapFile loaded = GangMapFile.open(file);
+            GangMapFile previous = map;
+            map = loaded;
+            if (previous != null) {
+                plugin.getLogger().fine("Reloaded gang map with " + loaded.gangCount() + " gangs, exported at " + loaded.exportedAt());
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Keeping the previous gang map", e);
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        GangMapFile map = this.map;
+        return CompletableFuture.completedFuture(map != null && map.findName(name) >= 0);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        GangMapFile map = this.map;
+        return CompletableFuture.completedFuture(gang(map, map != null ? map.findGang(gangId) : -1));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        GangMapFile map = this.map;
+        return CompletableFuture.completedFuture(gang(map, map != null ? map.findName(name) : -1));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        GangMapFile map = this.map;
+        int ordinal = map != null ? map.findPlayerGang(leaderUuid) : -1;
+        if (ordinal >= 0 && !map.leader(ordinal).equals(leaderUuid)) {
+            ordinal = -1;
+        }
+        return CompletableFuture.completedFuture(gang(map, ordinal));
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        GangMapFile map = this.map;
+        List<Gang> gangs = new ArrayList<>(map != null ? map.gangCount() : 0);
+        for (int ordinal = 0; map != null && ordinal < map.gangCount(); ordinal++) {
+            gangs.add(map.gang(ordinal));
+        }
+        return CompletableFuture.completedFuture(gangs);
+    }
+
+    @Override
+    public CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit) {
+        GangMapFile map = this.map;
+        if (map == null) {
+            return CompletableFuture.completedFuture(new GangPage(List.of(), 0));
+        }
+        Comparator<GangSummary> order = MemoryStorage.order(sort);
+        List<GangSummary> all = new ArrayList<>(map.gangCount());
+        for (int ordinal = 0; ordinal < map.gangCount(); ordinal++) {
+            GangSummary summary = map.summary(ordinal);
+            if (after == null || order.compare(summary, after) > 0) {
+                all.add(summary);
+            }
+        }
+        all.sort(order);
+        List<GangSummary> page = new ArrayList<>(all.subList(0, Math.min(Math.max(0, limit), all.size())));
+        return CompletableFuture.completedFuture(new GangPage(page, map.gangCount()));
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        GangMapFile map = this.map;
+        int ordinal = map != null ? map.findGang(gangId) : -1;
+        return CompletableFuture.completedFuture(ordinal >= 0 ? map.members(ordinal) : Set.of());
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        GangMapFile map = this.map;
+        int ordinal = map != null ? map.findPlayerGang(playerUuid) : -1;
+        return CompletableFuture.completedFuture(ordinal >= 0 ? Optional.of(map.gangId(ordinal)) : Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        GangMapFile map = this.map;
+        int ordinal = map != null ? map.findPlayerGang(playerUuid) : -1;
+        return CompletableFuture.completedFuture(ordinal >= 0 && map.gangId(ordinal).equals(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        GangMapFile map = this.map;
+        return CompletableFuture.completedFuture(gang(map, map != null ? map.findPlayerGang(playerUuid) : -1));
+    }
+
+    @Override
+    public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) {
+        return CompletableFuture.completedFuture(Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getAllInvites() {
+        return CompletableFuture.completedFuture(List.of());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        return CompletableFuture.completedFuture(false);
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        return CompletableFuture.completedFuture(0);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        return readOnly();
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return readOnly();
+    }
+
+    private static Optional<Gang> gang(GangMapFile map, int ordinal) {
+        return ordinal >= 0 ? Optional.of(map.gang(ordinal)) : Optional.empty();
+    }
+
+    private static <T> CompletableFuture<T> readOnly() {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException("Gangs are read-only on this server"));
+    }
+}
@@ -0,0 +1,187 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.managers.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps invites in memory, keyed by invited player and then by gang. Each invite has a
+ * timeout on a {@link TimingWheel} that removes it when it expires, so nothing polls for
+ * expired invites; reads also skip invites past their expiry, since the wheel may fire up
+ * to one tick late.
+ * <p>
+ * With write-through enabled every change is also sent to {@link Storage}, and the stored
+ * invites are loaded on {@link #initialize()}, so invites survive a restart. Otherwise they
+ * live only as long as the server.
+ */
+public class MemoryInviteStore implements InviteStore, GangChangeListener {
+
+    private record Entry(PendingInvite invite, TimingWheel.Timeout expiry) {
+    }
+
+    private final Map<UUID, Map<UUID, Entry>> invites = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final Storage writeThrough;
+    private final Logger logger;
+    private final TimingWheel wheel;
+
+    /**
+     * @param writeThrough storage to mirror invites to, or {@code null} to keep them in memory only
+     */
+    public MemoryInviteStore(long ttlMillis, TimingWheel wheel, Storage writeThrough, Logger logger) {
+        this.ttlMillis = Math.max(0, ttlMillis);
+        this.wheel = wheel;
+        this.writeThrough = writeThrough;
+        this.logger = logger;
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize() {
+        if (writeThrough == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeThrough.removeExpiredInvites(System.currentTimeMillis() - ttlMillis)
+                .thenCompose(removed -> writeThrough.getAllInvites())
+                .thenAccept(stored -> {
+                    for (PendingInvite invite : stored) {
+                        put(invite);
+                    }
+                    logger.info("Loaded " + stored.size() + " pending gang invites.");
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        put(invite);
+        if (writeThrough == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return writeThrough.addInvite(invite);
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getInvites(UUID invitedPlayerUuid) {
+        Map<UUID, Entry> byGang = invites.get(invitedPlayerUuid);
+        if (byGang == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        long now = System.currentTimeMillis();
+        List<PendingInvite> pending = new ArrayList<>(byGang.size());
+        for (Entry entry : byGang.values()) {
+            if (!isExpired(entry.invite(), now)) {
+                pending.add(entry.invite());
+            }
+        }
+        pending.sort(Comparator.comparingLong(PendingInvite::timestamp));
+        return CompletableFuture.completedFuture(pending);
+    }
+
+    @Override
+    public CompletableFuture<Optional<InviteClaim>> claimInvite(UUID invitedPlayerUuid, UUID gangId) {
+        long now = System.currentTimeMillis();
+        InviteClaim[] claimed = new InviteClaim[1];
+        invites.computeIfPresent(invitedPlayerUuid, (player, byGang) -> {
+            Entry entry = byGang.get(gangId);
+            if (entry == null || isExpired(entry.invite(), now)) {
+                return byGang;
+            }
+            List<PendingInvite> withdrawn = new ArrayList<>(byGang.size());
+            for (Entry other : byGang.values()) {
+                other.expiry().cancel();
+                withdrawn.add(other.invite());
+            }
+            claimed[0] = new InviteClaim(entry.invite(), withdrawn);
+            return null;
+        });
+        return CompletableFuture.completedFuture(Optional.ofNullable(claimed[0]));
+    }
+
+    @Override
+    public void restoreInvites(List<PendingInvite> restored) {
+        for (PendingInvite invite : restored) {
+            invites.compute(invite.invitedPlayerUuid(), (player, byGang) -> {
+                Map<UUID, Entry> updated = byGang != null ? byGang : new ConcurrentHashMap<>();
+                updated.computeIfAbsent(invite.gangId(), gangId -> new Entry(invite, schedule(invite)));
+                return updated;
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        invites.values().forEach(byGang -> byGang.values().forEach(entry -> entry.expiry().cancel()));
+        invites.clear();
+    }
+
+    @Override
+    public void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        // Disbanding deletes the stored rows too, but a plain delete does not and SQLite does
+        // not enforce the foreign key, so remove them here as well
+        for (UUID player : invites.keySet()) {
+            boolean[] removed = new boolean[1];
+            invites.computeIfPresent(player, (key, byGang) -> {
+                Entry entry = byGang.remove(gangId);
+                if (entry != null) {
+                    entry.expiry().cancel();
+                    removed[0] = true;
+                }
+                return byGang.isEmpty() ? null : byGang;
+            });
+            if (removed[0] && writeThrough != null) {
+                writeThrough.removeInvite(player, gangId).exceptionally(ex -> logFailure("remove invite of " + player, ex));
+            }
+        }
+    }
+
+    private void put(PendingInvite invite) {
+        invites.compute(invite.invitedPlayerUuid(), (player, byGang) -> {
+            Map<UUID, Entry> updated = byGang != null ? byGang : new ConcurrentHashMap<>();
+            Entry previous = updated.put(invite.gangId(), new Entry(invite, schedule(invite)));
+            if (previous != null) {
+                previous.expiry().cancel();
+            }
+            return updated;
+        });
+    }
+
+    private TimingWheel.Timeout schedule(PendingInvite invite) {
+        long delay = invite.timestamp() + ttlMillis - System.currentTimeMillis();
+        return wheel.schedule(() -> expire(invite), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void expire(PendingInvite invite) {
+        boolean[] removed = new boolean[1];
+        invites.computeIfPresent(invite.invitedPlayerUuid(), (player, byGang) -> {
+            Entry current = byGang.get(invite.gangId());
+            if (current != null && current.invite() == invite) {
+                byGang.remove(invite.gangId());
+                removed[0] = true;
+            }
+            return byGang.isEmpty() ? null : byGang;
+        });
+        if (removed[0] && writeThrough != null) {
+            writeThrough.removeInvite(invite.invitedPlayerUuid(), invite.gangId())
+                    .exceptionally(ex -> logFailure("remove expired invite of " + invite.invitedPlayerUuid(), ex));
+        }
+    }
+
+    private boolean isExpired(PendingInvite invite, long now) {
+        return now >= invite.timestamp() + ttlMillis;
+    }
+
+    private <T> T logFailure(String action, Throwable ex) {
+        logger.log(Level.WARNING, "Failed to " + action, ex);
+        return null;
+    }
+}
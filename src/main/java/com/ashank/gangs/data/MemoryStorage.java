@@ -0,0 +1,516 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Storage that keeps everything in memory and persists it as a {@link GangSnapshot},
+ * written every snapshot interval when something changed and again on shutdown. Every
+ * call completes before it returns. Changes made after the last snapshot are lost if the
+ * server crashes, so the interval is the trade-off between durability and disk writes.
+ * <p>
+ * Reads are lock-free; writes are serialised on one lock and replace stored gangs rather
+ * than changing them, so a snapshot only has to copy references while holding the lock.
+ */
+public class MemoryStorage implements Storage {
+
+    private static final Comparator<GangSummary> BY_NAME = Comparator.comparing(summary -> Gang.normalizeName(summary.name()));
+    private static final Comparator<GangSummary> BY_SIZE = Comparator.comparingInt(GangSummary::memberCount).reversed()
+            .thenComparing(GangSummary::gangId);
+    private static final Comparator<GangSummary> BY_CREATED = Comparator.comparingLong(GangSummary::createdAt)
+            .thenComparing(GangSummary::gangId);
+
+    private final Map<UUID, GangSnapshot.StoredGang> gangs = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> playerGangs = new ConcurrentHashMap<>();
+    private final Map<String, UUID> gangNames = new ConcurrentHashMap<>();
+    // Invited player -> inviting gang -> invite
+    private final Map<UUID, Map<UUID, PendingInvite>> invites = new ConcurrentHashMap<>();
+    /** Held by every write; reads never take it. */
+    protected final Object writeLock = new Object();
+
+    private final String fileName;
+    private final long snapshotIntervalSeconds;
+    private JavaPlugin plugin;
+    private Path snapshotFile;
+    private ScheduledExecutorService snapshotter;
+    // Both guarded by writeLock
+    private long version;
+    private long savedVersion;
+
+    /**
+     * @param fileName snapshot file, relative to the plugin folder
+     * @param snapshotIntervalSeconds how often to write a snapshot, or 0 to only write one on shutdown
+     */
+    public MemoryStorage(String fileName, long snapshotIntervalSeconds) {
+        this.fileName = fileName;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        this.snapshotFile = new File(plugin.getDataFolder(), fileName).toPath();
+        try {
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            if (Files.exists(snapshotFile)) {
+                restore(GangSnapshot.read(snapshotFile));
+                plugin.getLogger().info("Loaded " + gangs.size() + " gangs and " + playerGangs.size() + " members from " + fileName);
+            }
+        } catch (IOException e) {
+            // Starting empty would overwrite the snapshot on the next save, so refuse to start
+            plugin.getLogger().log(Level.SEVERE, "Could not load gang snapshot " + snapshotFile, e);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (snapshotIntervalSeconds > 0) {
+            snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "Gangs Snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::saveSnapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (plugin != null) {
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Loads gangs and invites read from a snapshot into this, still empty, storage.
+     */
+    protected void restore(GangSnapshot.Contents contents) {
+        synchronized (writeLock) {
+            contents.gangs().forEach(this::index);
+            contents.invites().forEach(invite ->
+                    invites.computeIfAbsent(invite.invitedPlayerUuid(), player -> new ConcurrentHashMap<>())
+                            .put(invite.gangId(), invite));
+        }
+    }
+
+    /**
+     * @return everything currently stored; cheap, as stored gangs are never changed in place
+     */
+    protected GangSnapshot.Contents capture() {
+        synchronized (writeLock) {
+            List<PendingInvite> inviteCopy = new ArrayList<>();
+            invites.values().forEach(byGang -> inviteCopy.addAll(byGang.values()));
+            return new GangSnapshot.Contents(new ArrayList<>(gangs.values()), inviteCopy);
+        }
+    }
+
+    /**
+     * @return a counter that goes up with every change, read while holding {@link #writeLock}
+     */
+    protected long changeCount() {
+        return version;
+    }
+
+    /**
+     * Writes a snapshot if anything changed since the last one.
+     *
+     * @return {@code true} if a snapshot was written
+     */
+    public synchronized boolean saveSnapshot() {
+        GangSnapshot.Contents contents;
+        long snapshotVersion;
+        synchronized (writeLock) {
+            if (version == savedVersion) {
+                return false;
+            }
+            snapshotVersion = version;
+            contents = capture();
+        }
+        try {
+            GangSnapshot.write(snapshotFile, contents.gangs(), contents.invites());
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write gang snapshot " + snapshotFile, e);
+            return false;
+        }
+        synchronized (writeLock) {
+            savedVersion = snapshotVersion;
+        }
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isGangNameTaken(String name) {
+        return CompletableFuture.completedFuture(gangNames.containsKey(Gang.normalizeName(name)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        synchronized (writeLock) {
+            GangSnapshot.StoredGang current = gangs.get(gangId);
+            if (current == null || !nameAvailable(newName, gangId)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            Gang renamed = current.gang().copy();
+            renamed.setName(newName);
+            replace(current, renamed);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return createGang(gang, System.currentTimeMillis());
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang, long createdAt) {
+        synchronized (writeLock) {
+            if (gangs.containsKey(gang.getGangId()) || gangNames.containsKey(Gang.normalizeName(gang.getName()))) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Gang already exists: " + gang.getName()));
+            }
+            if (playerGangs.containsKey(gang.getLeaderUuid())) {
+                return CompletableFuture.failedFuture(new IllegalStateException(gang.getLeaderUuid() + " is already in a gang"));
+            }
+            Set<UUID> members = new HashSet<>();
+            members.add(gang.getLeaderUuid());
+            index(new GangSnapshot.StoredGang(
+                    new Gang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(), members, gang.getDescription()),
+                    createdAt));
+            version++;
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) {
+        return CompletableFuture.completedFuture(findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByName(String name) {
+        UUID gangId = gangNames.get(Gang.normalizeName(name));
+        return CompletableFuture.completedFuture(gangId == null ? Optional.empty() : findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) {
+        UUID gangId = playerGangs.get(leaderUuid);
+        Optional<Gang> gang = gangId == null ? Optional.empty() : findGang(gangId);
+        return CompletableFuture.completedFuture(gang.filter(found -> found.getLeaderUuid().equals(leaderUuid)));
+    }
+
+    @Override
+    public CompletableFuture<List<Gang>> getAllGangs() {
+        List<Gang> result = new ArrayList<>(gangs.size());
+        for (GangSnapshot.StoredGang stored : gangs.values()) {
+            result.add(stored.gang().copy());
+        }
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * @return the order of {@code sort} for gangs listed from memory
+     */
+    static Comparator<GangSummary> order(GangSort sort) {
+        return switch (sort) {
+            case NAME -> BY_NAME;
+            case SIZE -> BY_SIZE;
+            case CREATED -> BY_CREATED;
+        };
+    }
+
+    @Override
+    public CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit) {
+        Comparator<GangSummary> order = order(sort);
+        List<GangSummary> all = new ArrayList<>(gangs.size());
+        for (GangSnapshot.StoredGang stored : gangs.values()) {
+            Gang gang = stored.gang();
+            GangSummary summary = new GangSummary(gang.getGangId(), gang.getName(), gang.getLeaderUuid(),
+                    gang.getMemberUuids().size(), stored.createdAt());
+            if (after == null || order.compare(summary, after) > 0) {
+                all.add(summary);
+            }
+        }
+        all.sort(order);
+        List<GangSummary> page = new ArrayList<>(all.subList(0, Math.min(Math.max(0, limit), all.size())));
+        return CompletableFuture.completedFuture(new GangPage(page, gangs.size()));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        synchronized (writeLock) {
+            GangSnapshot.StoredGang current = gangs.get(gang.getGangId());
+            if (current == null || !nameAvailable(gang.getName(), gang.getGangId())) {
+                return CompletableFuture.completedFuture(false);
+            }
+            Set<UUID> members = new HashSet<>(current.gang().getMemberUuids());
+            members.add(gang.getLeaderUuid());
+            replace(current, new Gang(gang.getGangId(), gang.getName(), gang.getLeaderUuid(), members, gang.getDescription()));
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        synchronized (writeLock) {
+            return CompletableFuture.completedFuture(removeGang(gangId) != null);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        synchronized (writeLock) {
+            Gang removed = removeGang(gangId);
+            return CompletableFuture.completedFuture(removed == null ? new HashSet<>() : new HashSet<>(removed.getMemberUuids()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        synchronized (writeLock) {
+            if (!gangs.containsKey(gangId)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("No gang with id " + gangId));
+            }
+            UUID previousGangId = playerGangs.get(playerUuid);
+            if (previousGangId != null && !previousGangId.equals(gangId)) {
+                removeMember(previousGangId, playerUuid);
+            }
+            addMember(gangId, playerUuid);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        synchronized (writeLock) {
+            if (playerGangs.containsKey(playerUuid)) {
+                return CompletableFuture.completedFuture(AcceptInviteResult.of(AcceptInviteResult.Status.ALREADY_IN_GANG));
+            }
+            if (!gangs.containsKey(gangId)) {
+                return CompletableFuture.completedFuture(AcceptInviteResult.of(AcceptInviteResult.Status.GANG_NOT_FOUND));
+            }
+            Gang joined = addMember(gangId, playerUuid);
+            invites.remove(playerUuid);
+            return CompletableFuture.completedFuture(new AcceptInviteResult(AcceptInviteResult.Status.ACCEPTED, joined.copy()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        synchronized (writeLock) {
+            GangSnapshot.StoredGang current = gangs.get(gangId);
+            if (current == null) {
+                return CompletableFuture.completedFuture(KickResult.GANG_NOT_FOUND);
+            }
+            if (!current.gang().getLeaderUuid().equals(leaderUuid)) {
+                return CompletableFuture.completedFuture(KickResult.NOT_LEADER);
+            }
+            if (current.gang().getLeaderUuid().equals(targetUuid)) {
+                return CompletableFuture.completedFuture(KickResult.TARGET_IS_LEADER);
+            }
+            return CompletableFuture.completedFuture(removeMember(gangId, targetUuid) ? KickResult.KICKED : KickResult.NOT_MEMBER);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        synchronized (writeLock) {
+            return CompletableFuture.completedFuture(removeMember(gangId, playerUuid));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) {
+        GangSnapshot.StoredGang stored = gangs.get(gangId);
+        return CompletableFuture.completedFuture(stored == null ? new HashSet<>() : new HashSet<>(stored.gang().getMemberUuids()));
+    }
+
+    @Override
+    public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) {
+        return CompletableFuture.completedFuture(Optional.ofNullable(playerGangs.get(playerUuid)));
+    }
+
+    @Override
+    public CompletableFuture<Void> addInvite(PendingInvite invite) {
+        synchronized (writeLock) {
+            if (!gangs.containsKey(invite.gangId())) {
+                return CompletableFuture.failedFuture(new IllegalStateException("No gang with id " + invite.gangId()));
+            }
+            invites.computeIfAbsent(invite.invitedPlayerUuid(), player -> new ConcurrentHashMap<>()).put(invite.gangId(), invite);
+            version++;
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) {
+        Map<UUID, PendingInvite> byGang = invites.get(invitedPlayerUuid);
+        return CompletableFuture.completedFuture(byGang == null ? Optional.empty()
+                : byGang.values().stream().max(Comparator.comparingLong(PendingInvite::timestamp)));
+    }
+
+    @Override
+    public CompletableFuture<List<PendingInvite>> getAllInvites() {
+        List<PendingInvite> result = new ArrayList<>();
+        invites.values().forEach(byGang -> result.addAll(byGang.values()));
+        return CompletableFuture.completedFuture(result);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) {
+        synchronized (writeLock) {
+            boolean removed = invites.remove(invitedPlayerUuid) != null;
+            if (removed) {
+                version++;
+            }
+            return CompletableFuture.completedFuture(removed);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId) {
+        synchronized (writeLock) {
+            Map<UUID, PendingInvite> byGang = invites.get(invitedPlayerUuid);
+            if (byGang == null || byGang.remove(gangId) == null) {
+                return CompletableFuture.completedFuture(false);
+            }
+            if (byGang.isEmpty()) {
+                invites.remove(invitedPlayerUuid);
+            }
+            version++;
+            return CompletableFuture.completedFuture(true);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) {
+        synchronized (writeLock) {
+            int removed = 0;
+            for (Map<UUID, PendingInvite> byGang : invites.values()) {
+                int before = byGang.size();
+                byGang.values().removeIf(invite -> invite.timestamp() < expiryTimestamp);
+                removed += before - byGang.size();
+            }
+            invites.values().removeIf(Map::isEmpty);
+            if (removed > 0) {
+                version++;
+            }
+            return CompletableFuture.completedFuture(removed);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) {
+        return CompletableFuture.completedFuture(gangId.equals(playerGangs.get(playerUuid)));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) {
+        UUID gangId = playerGangs.get(playerUuid);
+        return CompletableFuture.completedFuture(gangId == null ? Optional.empty() : findGang(gangId));
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        // Every call completes in place, so the whole batch is applied under the lock
+        synchronized (writeLock) {
+            return Storage.applySequentially(this, mutations);
+        }
+    }
+
+    private Optional<Gang> findGang(UUID gangId) {
+        GangSnapshot.StoredGang stored = gangs.get(gangId);
+        return stored == null ? Optional.empty() : Optional.of(stored.gang().copy());
+    }
+
+    private boolean nameAvailable(String name, UUID gangId) {
+        UUID owner = gangNames.get(Gang.normalizeName(name));
+        return owner == null || owner.equals(gangId);
+    }
+
+    private void index(GangSnapshot.StoredGang stored) {
+        Gang gang = stored.gang();
+        gangs.put(gang.getGangId(), stored);
+        gangNames.put(Gang.normalizeName(gang.getName()), gang.getGangId());
+        for (UUID member : gang.getMemberUuids()) {
+            playerGangs.put(member, gang.getGangId());
+        }
+    }
+
+    private void replace(GangSnapshot.StoredGang current, Gang updated) {
+        if (!current.gang().getName().equals(updated.getName())) {
+            gangNames.remove(Gang.normalizeName(current.gang().getName()), updated.getGangId());
+        }
+        index(new GangSnapshot.StoredGang(updated, current.createdAt()));
+        version++;
+    }
+
+    private Gang addMember(UUID gangId, UUID playerUuid) {
+        GangSnapshot.StoredGang current = gangs.get(gangId);
+        Gang updated = current.gang().copy();
+        updated.addMember(playerUuid);
+        gangs.put(gangId, new GangSnapshot.StoredGang(updated, current.createdAt()));
+        playerGangs.put(playerUuid, gangId);
+        version++;
+        return updated;
+    }
+
+    private boolean removeMember(UUID gangId, UUID playerUuid) {
+        GangSnapshot.StoredGang current = gangs.get(gangId);
+        if (current == null || !current.gang().getMemberUuids().contains(playerUuid)) {
+            return false;
+        }
+        // The leader stays part of the gang record, as in the registry
+        if (!current.gang().getLeaderUuid().equals(playerUuid)) {
+            Gang updated = current.gang().copy();
+            updated.removeMember(playerUuid);
+            gangs.put(gangId, new GangSnapshot.StoredGang(updated, current.createdAt()));
+        }
+        playerGangs.remove(playerUuid, gangId);
+        version++;
+        return true;
+    }
+
+    /**
+     * Removes the gang with its members and the invites it sent.
+     */
+    private Gang removeGang(UUID gangId) {
+        GangSnapshot.StoredGang removed = gangs.remove(gangId);
+        if (removed == null) {
+            return null;
+        }
+        gangNames.remove(Gang.normalizeName(removed.gang().getName()), gangId);
+        for (UUID member : removed.gang().getMemberUuids()) {
+            playerGangs.remove(member, gangId);
+        }
+        invites.values().forEach(byGang -> byGang.remove(gangId));
+        invites.values().removeIf(Map::isEmpty);
+        version++;
+        return removed.gang();
+    }
+}
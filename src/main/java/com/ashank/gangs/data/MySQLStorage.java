@@ -1,35 +1,45 @@
 package com.ashank.gangs.data;
 
-import com.ashank.gangs.Gang;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.flywaydb.core.api.FlywayException;
 
-import java.sql.*;
-import java.util.*;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.logging.Level;
 
-public class MySQLStorage implements Storage {
+/**
+ * MySQL (or MariaDB) backend on a HikariCP pool. Reads and writes both borrow a pooled
+ * connection on the storage executor; the driver caches server-side prepared statements and
+ * rewrites JDBC batches into multi-row statements.
+ */
+public class MySQLStorage extends JdbcStorage {
 
-    private JavaPlugin plugin;
     private HikariDataSource dataSource;
+    private final StorageExecutor executor;
+
+    public MySQLStorage(StorageExecutor executor) {
+        this.executor = executor;
+    }
 
     @Override
     public CompletableFuture<Void> initialize(JavaPlugin plugin) {
         this.plugin = plugin;
-        return CompletableFuture.runAsync(() -> {
+        return executor.supply(() -> {
             ConfigurationSection databaseConfig = plugin.getConfig().getConfigurationSection("database");
             if (databaseConfig == null) {
                 plugin.getLogger().severe("Database configuration section is missing in config.yml!");
-                return;
+                return null;
             }
             
             ConfigurationSection mysqlConfig = databaseConfig.getConfigurationSection("mysql");
             if (mysqlConfig == null) {
                 plugin.getLogger().severe("MySQL configuration section is missing in config.yml!");
-                return;
+                return null;
             }
 
             HikariConfig config = new HikariConfig();
@@ -39,6 +49,7 @@ public class MySQLStorage implements Storage {
             config.setUsername(mysqlConfig.getString("username"));
             config.setPassword(mysqlConfig.getString("password"));
             config.setMaximumPoolSize(mysqlConfig.getInt("pool-size", 10));
+            config.setPoolName("Gangs MySQL");
 
             config.addDataSourceProperty("cachePrepStmts", "true");
             config.addDataSourceProperty("prepStmtCacheSize", "250");
@@ -51,6 +62,14 @@ public class MySQLStorage implements Storage {
             config.addDataSourceProperty("elideSetAutoCommits", "true");
             config.addDataSourceProperty("maintainTimeStats", "false");
 
+            // Extra driver properties, e.g. allowPublicKeyRetrieval for a local MySQL 8 test server
+            ConfigurationSection properties = mysqlConfig.getConfigurationSection("properties");
+            if (properties != null) {
+                for (String key : properties.getKeys(false)) {
+                    config.addDataSourceProperty(key, properties.getString(key));
+                }
+            }
+
             try {
                 try {
                     Class.forName("com.mysql.cj.jdbc.Driver");
@@ -63,14 +82,18 @@ public class MySQLStorage implements Storage {
 
                
                 try {
-                    initializeSchema();
-                } catch (SQLException e) {
+                    SchemaMigrator.migrate(dataSource, "mysql", plugin.getLogger());
+                    UuidFormat requestedUuidFormat = UuidFormat.fromConfig(databaseConfig.getString("uuid-format", "text"));
+                    try (Connection conn = dataSource.getConnection()) {
+                        uuidFormat = UuidFormatConverter.apply(conn, "mysql", requestedUuidFormat, plugin.getLogger());
+                    }
+                } catch (FlywayException | SQLException e) {
                     plugin.getLogger().log(Level.SEVERE, "Database schema initialization failed!", e);
                     if (dataSource != null && !dataSource.isClosed()) {
                         dataSource.close();
                     }
                     dataSource = null;
-                    return;
+                    return null;
                 }
 
             } catch (Exception e) {
@@ -81,123 +104,49 @@ public class MySQLStorage implements Storage {
                 }
                 dataSource = null;
             }
+            return null;
         });
     }
 
     @Override
     public void close() {
+        executor.shutdown();
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
             plugin.getLogger().info("Database connection pool closed.");
         }
     }
 
-    private CompletableFuture<Connection> getConnection() {
-        return CompletableFuture.supplyAsync(() -> {
-            if (dataSource == null) {
-                plugin.getLogger().severe("Attempted to get connection before data source initialized or initialization failed!");
-                throw new IllegalStateException("DataSource is not available.");
-            }
-            try {
-                return dataSource.getConnection();
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Could not retrieve connection from pool!", e);
-                throw new RuntimeException(e);
-            }
-        });
+    @Override
+    protected <T> CompletableFuture<T> read(Function<Connection, T> query) {
+        return withConnection(query);
     }
 
-   
-   
-   
-
-   
-
-   
-
     @Override
-    public CompletableFuture<Boolean> isGangNameTaken(String name) {
-        return getConnection().thenApplyAsync(conn -> {
-            String sql = "SELECT 1 FROM gangs WHERE name = ? LIMIT 1";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, name);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    return rs.next();
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to check if gang name is taken", e);
-                return false;
-            } finally {
-                try { conn.close(); } catch (SQLException ignore) {}
-            }
-        });
+    protected <T> CompletableFuture<T> write(Function<Connection, T> statement) {
+        return withConnection(statement);
     }
 
     @Override
-    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
-        return getConnection().thenApplyAsync(conn -> {
-            String sql = "UPDATE gangs SET name = ? WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, newName);
-                stmt.setString(2, gangId.toString());
-                int affected = stmt.executeUpdate();
-                return affected > 0;
-            } catch (SQLException e) {
-                plugin.getLogger().log(Level.SEVERE, "Failed to update gang name", e);
-                return false;
-            } finally {
-                try { conn.close(); } catch (SQLException ignore) {}
-            }
-        });
+    protected boolean isDuplicateKey(SQLException e) {
+        // ER_DUP_ENTRY
+        return e.getErrorCode() == 1062;
     }
 
-    /**
-     * Initializes the database schema for gangs.
-     */
-    private void initializeSchema() throws SQLException {
-        try (Connection conn = dataSource.getConnection()) {
-            try (Statement stmt = conn.createStatement()) {
-               
-                stmt.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS gangs (" +
-                    "id VARCHAR(36) PRIMARY KEY," +
-                    "name VARCHAR(64) NOT NULL," +
-                    "leader_uuid VARCHAR(36) NOT NULL" +
-                   
-                    ")"
-                );
-                stmt.executeUpdate(
-                    "CREATE TABLE IF NOT EXISTS gang_members (" +
-                    "gang_id VARCHAR(36) NOT NULL," +
-                    "player_uuid VARCHAR(36) NOT NULL," +
-                    "PRIMARY KEY (gang_id, player_uuid)" +
-                   
-                    ")"
-                );
+    private <T> CompletableFuture<T> withConnection(Function<Connection, T> work) {
+        return executor.supply(() -> {
+            if (dataSource == null) {
+                plugin.getLogger().severe("Attempted to get connection before data source initialized or initialization failed!");
+                throw new IllegalStateException("DataSource is not available.");
             }
-        }
+            long acquireStart = System.nanoTime();
+            try (Connection conn = dataSource.getConnection()) {
+                recordWait("hikari acquire", acquireStart);
+                return work.apply(conn);
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not retrieve connection from pool!", e);
+                throw new RuntimeException(e);
+            }
+        });
     }
-
-   
-    @Override public CompletableFuture<Void> createGang(Gang gang) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<Gang>> getGangById(UUID gangId) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<Gang>> getGangByName(String name) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<List<Gang>> getAllGangs() { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> updateGang(Gang gang) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> deleteGang(UUID gangId) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Set<UUID>> getGangMembers(UUID gangId) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Void> addInvite(PendingInvite invite) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Void> addConfirmation(Confirmation confirmation) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<Confirmation>> getConfirmation(UUID playerUuid, String type) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> removeConfirmation(UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Integer> removeExpiredConfirmations(long expiryTimestamp) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-    @Override public CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid) { throw new UnsupportedOperationException("Not implemented"); }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.ashank.gangs.data;
+
+import com.ashank.gangs.Gang;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Outermost storage layer. Tells registered {@link GangChangeListener}s about every gang
+ * change that succeeded, whichever command or backend made it.
+ */
+public class NotifyingStorage extends ForwardingStorage {
+
+    private final List<GangChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private JavaPlugin plugin;
+
+    public NotifyingStorage(Storage delegate) {
+        super(delegate);
+    }
+
+    public void addListener(GangChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public CompletableFuture<Void> initialize(JavaPlugin plugin) {
+        this.plugin = plugin;
+        return super.initialize(plugin);
+    }
+
+    @Override
+    public CompletableFuture<Void> createGang(Gang gang) {
+        return super.createGang(gang).thenRun(() -> fire(listener -> listener.gangCreated(gang)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGangName(UUID gangId, String newName) {
+        return super.updateGangName(gangId, newName).thenApply(updated -> {
+            if (updated) {
+                fire(listener -> listener.gangRenamed(gangId, newName));
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateGang(Gang gang) {
+        return super.updateGang(gang).thenApply(updated -> {
+            if (updated) {
+                fire(listener -> listener.gangUpdated(gang));
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteGang(UUID gangId) {
+        return super.deleteGang(gangId).thenApply(deleted -> {
+            if (deleted) {
+                fire(listener -> listener.gangRemoved(gangId, Set.of()));
+            }
+            return deleted;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<UUID>> disbandGang(UUID gangId) {
+        return super.disbandGang(gangId).thenApply(members -> {
+            if (!members.isEmpty()) {
+                fire(listener -> listener.gangRemoved(gangId, members));
+            }
+            return members;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid) {
+        return super.addGangMember(gangId, playerUuid).thenRun(() -> fire(listener -> listener.memberAdded(gangId, playerUuid)));
+    }
+
+    @Override
+    public CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId) {
+        return super.acceptInvite(playerUuid, gangId).thenApply(result -> {
+            if (result.status() == AcceptInviteResult.Status.ACCEPTED) {
+                fire(listener -> listener.memberAdded(result.gang().getGangId(), playerUuid));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid) {
+        return super.kickMember(gangId, leaderUuid, targetUuid).thenApply(result -> {
+            if (result == KickResult.KICKED) {
+                fire(listener -> listener.memberRemoved(gangId, targetUuid));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid) {
+        return super.removeGangMember(gangId, playerUuid).thenApply(removed -> {
+            if (removed) {
+                fire(listener -> listener.memberRemoved(gangId, playerUuid));
+            }
+            return removed;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return super.applyMutations(mutations).thenRun(() -> mutations.forEach(this::fire));
+    }
+
+    private void fire(GangMutation mutation) {
+        switch (mutation) {
+            case GangMutation.CreateGang m -> fire(listener -> listener.gangCreated(m.toGang()));
+            case GangMutation.UpdateGang m -> fire(listener -> listener.gangUpdated(m.toGang()));
+            case GangMutation.RenameGang m -> fire(listener -> listener.gangRenamed(m.gangId(), m.newName()));
+            case GangMutation.DeleteGang m -> fire(listener -> listener.gangRemoved(m.gangId(), Set.of()));
+            case GangMutation.DisbandGang m -> fire(listener -> listener.gangRemoved(m.gangId(), Set.of()));
+            case GangMutation.AddMember m -> fire(listener -> listener.memberAdded(m.gangId(), m.playerUuid()));
+            case GangMutation.AcceptInvite m -> fire(listener -> listener.memberAdded(m.gangId(), m.playerUuid()));
+            case GangMutation.RemoveMember m -> fire(listener -> listener.memberRemoved(m.gangId(), m.playerUuid()));
+            // Invites are not gang changes; listeners are not told about them
+            case GangMutation.AddInvite m -> {}
+            case GangMutation.RemoveInvites m -> {}
+            case GangMutation.RemoveInvite m -> {}
+        }
+    }
+
+    private void fire(Consumer<GangChangeListener> event) {
+        for (GangChangeListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                if (plugin != null) {
+                    plugin.getLogger().log(Level.SEVERE, "Gang change listener " + listener.getClass().getSimpleName() + " failed", e);
+                }
+            }
+        }
+    }
+}
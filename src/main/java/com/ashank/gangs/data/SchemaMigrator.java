@@ -0,0 +1,43 @@
+package com.ashank.gangs.data;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.flywaydb.core.api.output.MigrateResult;
+
+import javax.sql.DataSource;
+import java.util.logging.Logger;
+
+/**
+ * Applies the versioned migrations under {@code db/migration/<vendor>}.
+ * <p>
+ * Databases created before migrations existed have no history table; they are baselined at
+ * version 0 so the idempotent V1 script runs against them and later versions apply normally.
+ * V1 leaves existing tables as they are; on MySQL, V6 brings them up to the V1 shape.
+ */
+final class SchemaMigrator {
+
+    private SchemaMigrator() {
+    }
+
+    static void migrate(DataSource dataSource, String vendor, Logger logger) {
+        migrate(configure(vendor).dataSource(dataSource), vendor, logger);
+    }
+
+    static void migrate(String jdbcUrl, String vendor, Logger logger) {
+        migrate(configure(vendor).dataSource(jdbcUrl, null, null), vendor, logger);
+    }
+
+    private static FluentConfiguration configure(String vendor) {
+        return Flyway.configure(SchemaMigrator.class.getClassLoader())
+                .locations("classpath:db/migration/" + vendor)
+                .baselineOnMigrate(true)
+                .baselineVersion("0");
+    }
+
+    private static void migrate(FluentConfiguration configuration, String vendor, Logger logger) {
+        MigrateResult result = configuration.load().migrate();
+        if (result.migrationsExecuted > 0) {
+            logger.info("Applied " + result.migrationsExecuted + " " + vendor + " schema migration(s), now at version " + result.targetSchemaVersion);
+        }
+    }
+}
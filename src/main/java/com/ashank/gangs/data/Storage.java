@@ -12,24 +12,102 @@ public interface Storage {
     CompletableFuture<Boolean> isGangNameTaken(String name);
     CompletableFuture<Boolean> updateGangName(UUID gangId, String newName);
     CompletableFuture<Void> createGang(Gang gang);
+
+    /**
+     * Creates the gang with the creation time it was given when first created, for
+     * mutations applied after the fact. Backends that do not keep one may ignore it.
+     *
+     * @param createdAt epoch millis to record as the creation time
+     */
+    default CompletableFuture<Void> createGang(Gang gang, long createdAt) {
+        return createGang(gang);
+    }
     CompletableFuture<Optional<Gang>> getGangById(UUID gangId);
     CompletableFuture<Optional<Gang>> getGangByName(String name);
     CompletableFuture<Optional<Gang>> getGangByLeader(UUID leaderUuid);
     CompletableFuture<List<Gang>> getAllGangs();
+
+    /**
+     * Returns up to {@code limit} gangs in {@code sort} order, starting after {@code after}
+     * (the last row of the previous page, or {@code null} for the first page). Members are
+     * counted rather than loaded, so a page costs the same however large the gangs are.
+     */
+    CompletableFuture<GangPage> listGangs(GangSort sort, GangSummary after, int limit);
     CompletableFuture<Boolean> updateGang(Gang gang);
     CompletableFuture<Boolean> deleteGang(UUID gangId);
+
+    /**
+     * Removes a gang, its members and its stored invites in one transaction.
+     *
+     * @return the former members including the leader, or an empty set if the gang did not exist
+     */
+    CompletableFuture<Set<UUID>> disbandGang(UUID gangId);
     CompletableFuture<Void> addGangMember(UUID gangId, UUID playerUuid);
+
+    /**
+     * Adds the player to the gang for an invite the caller has already claimed: checks the
+     * player has no gang and the gang still exists, then adds the member and removes any
+     * stored invites of the player in one transaction.
+     */
+    CompletableFuture<AcceptInviteResult> acceptInvite(UUID playerUuid, UUID gangId);
+
+    /**
+     * Removes {@code targetUuid} from the gang if {@code leaderUuid} leads it, checked and
+     * applied in one transaction.
+     */
+    CompletableFuture<KickResult> kickMember(UUID gangId, UUID leaderUuid, UUID targetUuid);
     CompletableFuture<Boolean> removeGangMember(UUID gangId, UUID playerUuid);
     CompletableFuture<Set<UUID>> getGangMembers(UUID gangId);
     CompletableFuture<Optional<UUID>> getPlayerGangId(UUID playerUuid);
     CompletableFuture<Void> addInvite(PendingInvite invite);
+    /**
+     * @return the most recent invite of the player
+     */
     CompletableFuture<Optional<PendingInvite>> getInvite(UUID invitedPlayerUuid);
+    CompletableFuture<List<PendingInvite>> getAllInvites();
+
+    /**
+     * Removes every invite of the player.
+     */
     CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid);
+    CompletableFuture<Boolean> removeInvite(UUID invitedPlayerUuid, UUID gangId);
     CompletableFuture<Integer> removeExpiredInvites(long expiryTimestamp);
-    CompletableFuture<Void> addConfirmation(Confirmation confirmation);
-    CompletableFuture<Optional<Confirmation>> getConfirmation(UUID playerUuid, String type);
-    CompletableFuture<Boolean> removeConfirmation(UUID playerUuid);
-    CompletableFuture<Integer> removeExpiredConfirmations(long expiryTimestamp);
     CompletableFuture<Boolean> isMember(UUID gangId, UUID playerUuid);
     CompletableFuture<Optional<Gang>> getPlayerGangAsync(UUID playerUuid);
-} 
\ No newline at end of file
+
+    /**
+     * Applies a batch of mutations in order. Backends that support transactions should
+     * override this to commit the whole batch at once.
+     */
+    default CompletableFuture<Void> applyMutations(List<GangMutation> mutations) {
+        return applySequentially(this, mutations);
+    }
+
+    /**
+     * Applies each mutation through the regular single-row methods of {@code storage}.
+     */
+    static CompletableFuture<Void> applySequentially(Storage storage, List<GangMutation> mutations) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (GangMutation mutation : mutations) {
+            chain = chain.thenCompose(ignored -> apply(storage, mutation).thenRun(() -> {}));
+        }
+        return chain;
+    }
+
+    private static CompletableFuture<?> apply(Storage storage, GangMutation mutation) {
+        return switch (mutation) {
+            case GangMutation.CreateGang m -> storage.createGang(m.toGang(), m.createdAt());
+            case GangMutation.UpdateGang m -> storage.updateGang(m.toGang());
+            case GangMutation.RenameGang m -> storage.updateGangName(m.gangId(), m.newName());
+            case GangMutation.DeleteGang m -> storage.deleteGang(m.gangId());
+            case GangMutation.DisbandGang m -> storage.disbandGang(m.gangId());
+            case GangMutation.AddMember m -> storage.addGangMember(m.gangId(), m.playerUuid());
+            case GangMutation.AcceptInvite m -> storage.addGangMember(m.gangId(), m.playerUuid())
+                    .thenCompose(ignored -> storage.removeInvite(m.playerUuid()));
+            case GangMutation.RemoveMember m -> storage.removeGangMember(m.gangId(), m.playerUuid());
+            case GangMutation.AddInvite m -> storage.addInvite(m.invite());
+            case GangMutation.RemoveInvites m -> storage.removeInvite(m.invitedPlayerUuid());
+            case GangMutation.RemoveInvite m -> storage.removeInvite(m.invitedPlayerUuid(), m.gangId());
+        };
+    }
+}
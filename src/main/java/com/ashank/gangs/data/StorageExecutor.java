@@ -0,0 +1,197 @@
+package com.ashank.gangs.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executor for blocking database work, kept apart from the common ForkJoinPool.
+ * Either a fixed pool of platform threads with a bounded queue, or one virtual thread per
+ * task of which at most {@code threads} run at once and {@code queueSize} more wait. Work
+ * beyond the limit is rejected and counted.
+ */
+public final class StorageExecutor implements Executor {
+
+    public enum Type { PLATFORM, VIRTUAL }
+
+    private final String name;
+    private final Type type;
+    private final ExecutorService delegate;
+    private final ThreadPoolExecutor platformPool;
+    // Virtual only: tasks accepted (running or waiting), and tasks allowed to run at once
+    private final Semaphore virtualPermits;
+    private final Semaphore runPermits;
+    private final int capacity;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private StorageExecutor(String name, Type type, int threads, int queueSize) {
+        this.name = name;
+        this.type = type;
+        if (type == Type.VIRTUAL) {
+            this.platformPool = null;
+            this.capacity = threads + queueSize;
+            this.virtualPermits = new Semaphore(capacity);
+            this.runPermits = new Semaphore(threads, true);
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + " #", 1).factory());
+        } else {
+            this.virtualPermits = null;
+            this.runPermits = null;
+            this.capacity = threads + queueSize;
+            AtomicInteger counter = new AtomicInteger();
+            this.platformPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name + " #" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> {
+                        throw new RejectedExecutionException(name + " queue is full");
+                    });
+            this.platformPool.allowCoreThreadTimeOut(true);
+            this.delegate = platformPool;
+        }
+    }
+
+    public static StorageExecutor platform(String name, int threads, int queueSize) {
+        return new StorageExecutor(name, Type.PLATFORM, Math.max(1, threads), Math.max(1, queueSize));
+    }
+
+    /**
+     * @param maxConcurrent tasks allowed to run at once
+     * @param queueSize additional tasks allowed to wait for a permit-holding task to finish
+     */
+    public static StorageExecutor virtual(String name, int maxConcurrent, int queueSize) {
+        return new StorageExecutor(name, Type.VIRTUAL, Math.max(1, maxConcurrent), Math.max(0, queueSize));
+    }
+
+    /**
+     * Builds the executor described by the {@code database.executor} section. A missing
+     * section gives a small platform pool.
+     */
+    public static StorageExecutor fromConfig(ConfigurationSection section) {
+        String type = section != null ? section.getString("type", "platform") : "platform";
+        int threads = section != null ? section.getInt("threads", 8) : 8;
+        int queueSize = section != null ? section.getInt("queue-size", 1000) : 1000;
+        if ("virtual".equalsIgnoreCase(type)) {
+            return virtual("Gangs Storage", threads, queueSize);
+        }
+        return platform("Gangs Storage", threads, queueSize);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (virtualPermits != null && !virtualPermits.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException(name + " has too many tasks in flight");
+        }
+        Runnable task = () -> {
+            // Each task has its own virtual thread, so waiting for a run permit is the queue
+            if (runPermits != null) {
+                runPermits.acquireUninterruptibly();
+            }
+            try {
+                command.run();
+            } finally {
+                completed.increment();
+                if (runPermits != null) {
+                    runPermits.release();
+                    virtualPermits.release();
+                }
+            }
+        };
+        submitted.increment();
+        try {
+            delegate.execute(task);
+        } catch (RejectedExecutionException e) {
+            submitted.decrement();
+            rejected.increment();
+            if (virtualPermits != null) {
+                virtualPermits.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs {@code task} on this executor. A rejected task gives a failed future rather than
+     * an exception on the calling thread.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+        try {
+            if (!delegate.awaitTermination(10, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Tasks accepted but not yet finished, including those still waiting in the queue.
+     */
+    public int getInFlight() {
+        if (platformPool != null) {
+            return platformPool.getQueue().size() + platformPool.getActiveCount();
+        }
+        return capacity - virtualPermits.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        if (platformPool != null) {
+            return platformPool.getQueue().size();
+        }
+        return runPermits.getQueueLength();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + type.name().toLowerCase() + ", in flight " + getInFlight() + "/" + capacity
+                + ", submitted " + getSubmittedCount() + ", completed " + getCompletedCount()
+                + ", rejected " + getRejectedCount() + "]";
+    }
+}
@@ -4,26 +4,97 @@ import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public class StorageFactory {
-    
-    public static Storage createStorage(JavaPlugin plugin) {
+
+    /**
+     * Builds the configured storage stack, wrapped so gang changes can be observed.
+     */
+    public static NotifyingStorage createStorage(JavaPlugin plugin) {
+        return new NotifyingStorage(createStack(plugin));
+    }
+
+    private static Storage createStack(JavaPlugin plugin) {
         ConfigurationSection databaseConfig = plugin.getConfig().getConfigurationSection("database");
         if (databaseConfig == null) {
             plugin.getLogger().severe("Database configuration section is missing in config.yml! Defaulting to SQLite.");
-            return new SQLiteStorage();
+            return new GangRegistry(new SQLiteStorage(StorageExecutor.fromConfig(null)), 250, 256);
+        }
+
+        ConfigurationSection metricsConfig = databaseConfig.getConfigurationSection("metrics");
+        StorageMetrics metrics = StorageMetrics.fromConfig(metricsConfig);
+        boolean jfrEvents = metricsConfig == null || metricsConfig.getBoolean("jfr-events", true);
+        boolean instrumented = metrics != null || jfrEvents;
+        Storage backend = createBackend(plugin, databaseConfig);
+        if (metrics != null && backend instanceof JdbcStorage jdbc) {
+            jdbc.setMetrics(metrics);
+        } else if (metrics != null && backend instanceof JournalStorage journal) {
+            journal.setMetrics(metrics);
+        }
+        if (instrumented) {
+            backend = new InstrumentedStorage(backend, metrics, jfrEvents, "backend");
+        }
+        Storage front = createFront(plugin, databaseConfig, backend);
+        // Only worth timing separately when something sits in front of the backend
+        return instrumented && front != backend ? new InstrumentedStorage(front, metrics, jfrEvents, "api") : front;
+    }
+
+    private static Storage createFront(JavaPlugin plugin, ConfigurationSection databaseConfig, Storage backend) {
+        if (ForwardingStorage.find(backend, MemoryStorage.class).isPresent()
+                || ForwardingStorage.find(backend, MappedStorage.class).isPresent()) {
+            // Already answers everything from memory; a registry or cache would only copy it
+            return backend;
+        }
+        ConfigurationSection registryConfig = databaseConfig.getConfigurationSection("registry");
+        if (registryConfig != null && !registryConfig.getBoolean("enabled", true)) {
+            ConfigurationSection cacheConfig = databaseConfig.getConfigurationSection("cache");
+            if (cacheConfig != null && !cacheConfig.getBoolean("enabled", true)) {
+                plugin.getLogger().info("Gang registry and cache disabled, all reads go to the database");
+                return backend;
+            }
+            plugin.getLogger().info("Gang registry disabled, caching player and gang lookups");
+            long maximumSize = cacheConfig != null ? cacheConfig.getLong("maximum-size", 10000) : 10000;
+            long offlineExpirySeconds = cacheConfig != null ? cacheConfig.getLong("offline-expiry-seconds", 600) : 600;
+            return new CachingStorage(backend, maximumSize, offlineExpirySeconds);
         }
-        
+        long flushIntervalMillis = registryConfig != null ? registryConfig.getLong("flush-interval-ms", 250) : 250;
+        int batchSize = registryConfig != null ? registryConfig.getInt("batch-size", 256) : 256;
+        return new GangRegistry(backend, flushIntervalMillis, batchSize);
+    }
+
+    private static Storage createBackend(JavaPlugin plugin, ConfigurationSection databaseConfig) {
         String databaseType = databaseConfig.getString("type", "sqlite").toLowerCase();
-        
+        if (databaseType.equals("memory")) {
+            ConfigurationSection memoryConfig = databaseConfig.getConfigurationSection("memory");
+            String file = memoryConfig != null ? memoryConfig.getString("file", "gangs.snapshot") : "gangs.snapshot";
+            long intervalSeconds = memoryConfig != null ? memoryConfig.getLong("snapshot-interval-seconds", 30) : 30;
+            plugin.getLogger().info("Using in-memory storage backend, snapshot every " + intervalSeconds + "s");
+            return new MemoryStorage(file, intervalSeconds);
+        }
+        if (databaseType.equals("journal")) {
+            ConfigurationSection journalConfig = databaseConfig.getConfigurationSection("journal");
+            String directory = journalConfig != null ? journalConfig.getString("directory", "journal") : "journal";
+            long compactAfterMb = journalConfig != null ? journalConfig.getLong("compact-after-mb", 16) : 16;
+            plugin.getLogger().info("Using journal storage backend");
+            return new JournalStorage(directory, compactAfterMb * 1024 * 1024);
+        }
+        if (databaseType.equals("mapped")) {
+            ConfigurationSection mappedConfig = databaseConfig.getConfigurationSection("mapped");
+            String file = mappedConfig != null ? mappedConfig.getString("file", "gangs.map") : "gangs.map";
+            long pollSeconds = mappedConfig != null ? mappedConfig.getLong("poll-interval-seconds", 5) : 5;
+            plugin.getLogger().info("Using read-only gang map " + file);
+            return new MappedStorage(file, pollSeconds);
+        }
+        StorageExecutor executor = StorageExecutor.fromConfig(databaseConfig.getConfigurationSection("executor"));
+
         switch (databaseType) {
             case "sqlite":
                 plugin.getLogger().info("Using SQLite storage backend");
-                return new SQLiteStorage();
+                return new SQLiteStorage(executor);
             case "mysql":
                 plugin.getLogger().info("Using MySQL storage backend");
-                return new MySQLStorage();
+                return new MySQLStorage(executor);
             default:
                 plugin.getLogger().warning("Unknown database type '" + databaseType + "'. Defaulting to SQLite.");
-                return new SQLiteStorage();
+                return new SQLiteStorage(executor);
         }
     }
-}
\ No newline at end of file
+}
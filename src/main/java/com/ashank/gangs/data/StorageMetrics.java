@@ -0,0 +1,139 @@
+package com.ashank.gangs.data;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Call counts, error counts and latency histograms per storage operation, filled in by
+ * {@link InstrumentedStorage}, plus the time backends spend waiting for a connection.
+ */
+public class StorageMetrics {
+
+    private static final class Operation {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private record Totals(long calls, long errors, LatencyHistogram.Snapshot latency) {
+    }
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> waits = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private final long logIntervalMinutes;
+
+    // Last logged totals, so each summary covers only its own interval
+    private Map<String, Totals> lastLogged = new HashMap<>();
+    private long lastLoggedNanos = startNanos;
+
+    public StorageMetrics(long logIntervalMinutes) {
+        this.logIntervalMinutes = logIntervalMinutes;
+    }
+
+    /**
+     * @return metrics as configured in {@code database.metrics}, or {@code null} if disabled
+     */
+    static StorageMetrics fromConfig(ConfigurationSection config) {
+        if (config != null && !config.getBoolean("enabled", true)) {
+            return null;
+        }
+        return new StorageMetrics(config != null ? config.getLong("log-interval-minutes", 15) : 15);
+    }
+
+    /**
+     * @return minutes between summaries in the log, or 0 or less for none
+     */
+    public long getLogIntervalMinutes() {
+        return logIntervalMinutes;
+    }
+
+    void record(String operation, long nanos, boolean failed) {
+        Operation stats = operations.computeIfAbsent(operation, name -> new Operation());
+        stats.calls.increment();
+        if (failed) {
+            stats.errors.increment();
+        }
+        stats.latency.record(nanos);
+    }
+
+    /**
+     * Records time spent waiting for a connection or for the thread that owns one.
+     */
+    void recordWait(String name, long nanos) {
+        waits.computeIfAbsent(name, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * @return one line per operation and wait since startup, busiest first
+     */
+    public List<String> describe() {
+        return describe(totals(), Map.of(), System.nanoTime() - startNanos);
+    }
+
+    public synchronized void logSummary(Logger logger) {
+        long now = System.nanoTime();
+        long elapsed = now - lastLoggedNanos;
+        Map<String, Totals> current = totals();
+        List<String> lines = describe(current, lastLogged, elapsed);
+        lastLogged = current;
+        lastLoggedNanos = now;
+        if (lines.isEmpty()) {
+            return;
+        }
+        logger.info("Storage over the last " + Math.max(1, TimeUnit.NANOSECONDS.toMinutes(elapsed)) + "m (max is since startup):");
+        for (String line : lines) {
+            logger.info("  " + line);
+        }
+    }
+
+    private Map<String, Totals> totals() {
+        Map<String, Totals> totals = new TreeMap<>();
+        operations.forEach((name, stats) -> totals.put(name,
+                new Totals(stats.calls.sum(), stats.errors.sum(), stats.latency.snapshot())));
+        waits.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            totals.put("wait " + name, new Totals(snapshot.total(), 0, snapshot));
+        });
+        return totals;
+    }
+
+    private static List<String> describe(Map<String, Totals> current, Map<String, Totals> previous, long elapsedNanos) {
+        double seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos));
+        List<Map.Entry<String, Totals>> deltas = new ArrayList<>();
+        for (Map.Entry<String, Totals> entry : current.entrySet()) {
+            Totals now = entry.getValue();
+            Totals before = previous.get(entry.getKey());
+            Totals delta = before == null ? now
+                    : new Totals(now.calls() - before.calls(), now.errors() - before.errors(), now.latency().minus(before.latency()));
+            if (delta.calls() > 0) {
+                deltas.add(Map.entry(entry.getKey(), delta));
+            }
+        }
+        deltas.sort((a, b) -> Long.compare(b.getValue().calls(), a.getValue().calls()));
+
+        List<String> lines = new ArrayList<>(deltas.size());
+        for (Map.Entry<String, Totals> entry : deltas) {
+            Totals totals = entry.getValue();
+            LatencyHistogram.Snapshot latency = totals.latency();
+            lines.add(String.format("%s: %d calls (%.1f/s), %d errors, p50 %s, p99 %s, p999 %s, max %s",
+                    entry.getKey(), totals.calls(), totals.calls() / seconds, totals.errors(),
+                    millis(latency.valueAt(0.5)), millis(latency.valueAt(0.99)),
+                    millis(latency.valueAt(0.999)), millis(latency.max())));
+        }
+        return lines;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ashank.gangs.data;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * How UUID columns are stored. {@link #TEXT} is the 36 character form, {@link #BINARY}
+ * packs the two longs of the UUID into 16 bytes.
+ */
+public enum UuidFormat {
+
+    TEXT {
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            if (uuid == null) {
+                stmt.setNull(index, Types.VARCHAR);
+            } else {
+                stmt.setString(index, uuid.toString());
+            }
+        }
+
+        @Override
+        public UUID read(ResultSet rs, String column) throws SQLException {
+            String value = rs.getString(column);
+            return value == null || value.isEmpty() ? null : UUID.fromString(value);
+        }
+    },
+
+    BINARY {
+        @Override
+        public void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+            if (uuid == null) {
+                stmt.setNull(index, Types.BINARY);
+                return;
+            }
+            stmt.setBytes(index, ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits())
+                    .putLong(uuid.getLeastSignificantBits())
+                    .array());
+        }
+
+        @Override
+        public UUID read(ResultSet rs, String column) throws SQLException {
+            byte[] value = rs.getBytes(column);
+            if (value == null) {
+                return null;
+            }
+            if (value.length != 16) {
+                throw new SQLException("Column " + column + " holds " + value.length + " bytes, expected a 16 byte UUID");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+    };
+
+    public abstract void bind(PreparedStatement stmt, int index, UUID uuid) throws SQLException;
+
+    /**
+     * @return the UUID in {@code column}, or {@code null} for SQL NULL
+     */
+    public abstract UUID read(ResultSet rs, String column) throws SQLException;
+
+    public static UuidFormat fromConfig(String value) {
+        return "binary".equalsIgnoreCase(value) ? BINARY : TEXT;
+    }
+}
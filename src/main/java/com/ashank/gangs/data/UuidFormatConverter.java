@@ -0,0 +1,217 @@
+package com.ashank.gangs.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Converts UUID columns from text to binary when {@code database.uuid-format} asks for it.
+ * The format in use is recorded in {@code storage_meta}; once a database is binary it stays
+ * binary, since converting back is not supported.
+ */
+final class UuidFormatConverter {
+
+    private record UuidColumn(String table, String column) {
+    }
+
+    private record ForeignKey(String table, String name) {
+    }
+
+    private static final List<UuidColumn> COLUMNS = List.of(
+            new UuidColumn("gangs", "id"),
+            new UuidColumn("gangs", "leader_uuid"),
+            new UuidColumn("gang_members", "gang_id"),
+            new UuidColumn("gang_members", "player_uuid"),
+            new UuidColumn("invites", "invited_uuid"),
+            new UuidColumn("invites", "gang_id"),
+            new UuidColumn("invites", "inviter_uuid")
+    );
+
+    private UuidFormatConverter() {
+    }
+
+    /**
+     * Brings the database to the requested format if needed.
+     *
+     * @return the format the database actually uses afterwards
+     */
+    static UuidFormat apply(Connection conn, String vendor, UuidFormat requested, Logger logger) throws SQLException {
+        UuidFormat current = readFormat(conn);
+        if (current == requested) {
+            return current;
+        }
+        if (current == UuidFormat.BINARY) {
+            logger.warning("Database stores UUIDs as binary; converting back to text is not supported. Keeping binary UUIDs.");
+            return current;
+        }
+
+        logger.info("Converting " + vendor + " UUID columns to binary, this may take a moment...");
+        long start = System.currentTimeMillis();
+        if (vendor.equals("mysql")) {
+            convertMySql(conn, logger);
+        } else {
+            convertSqlite(conn);
+        }
+        logger.info("UUID conversion finished in " + (System.currentTimeMillis() - start) + "ms");
+        return UuidFormat.BINARY;
+    }
+
+    private static UuidFormat readFormat(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT meta_value FROM storage_meta WHERE meta_key = 'uuid_format'");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? UuidFormat.fromConfig(rs.getString(1)) : UuidFormat.TEXT;
+        }
+    }
+
+    private static String unhex(String column) {
+        return "UNHEX(REPLACE(NULLIF(" + column + ", ''), '-', ''))";
+    }
+
+    /**
+     * SQLite columns have TEXT affinity, which keeps BLOB values as they are, so the
+     * conversion is an in-place update inside one transaction.
+     */
+    private static void convertSqlite(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (UuidColumn column : COLUMNS) {
+                stmt.executeUpdate("UPDATE " + column.table() + " SET " + column.column() + " = " + unhex(column.column())
+                        + " WHERE typeof(" + column.column() + ") = 'text'");
+            }
+            stmt.executeUpdate("UPDATE storage_meta SET meta_value = 'binary' WHERE meta_key = 'uuid_format'");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * MySQL DDL commits implicitly, so a failure can leave the conversion half done. Every
+     * step therefore checks what is left to do: column types are read from
+     * {@code information_schema}, only values that are not yet 16 bytes are converted, and
+     * each finished table is recorded in {@code storage_meta}. Foreign keys are dropped while
+     * the key columns change type and added back afterwards.
+     */
+    private static void convertMySql(Connection conn, Logger logger) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        for (UuidColumn column : COLUMNS) {
+            if (!tables.contains(column.table())) {
+                tables.add(column.table());
+            }
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (ForeignKey key : mySqlForeignKeys(conn, tables)) {
+                stmt.executeUpdate("ALTER TABLE " + key.table() + " DROP FOREIGN KEY " + key.name());
+            }
+            for (String table : tables) {
+                if (isTableConverted(conn, table)) {
+                    continue;
+                }
+                Map<String, String> types = mySqlColumnTypes(conn, table);
+                if (types.isEmpty()) {
+                    continue;
+                }
+                List<UuidColumn> text = new ArrayList<>();
+                List<UuidColumn> pending = new ArrayList<>();
+                for (UuidColumn column : COLUMNS) {
+                    String type = types.get(column.column());
+                    if (!column.table().equals(table) || type == null || type.equals("binary")) {
+                        continue;
+                    }
+                    pending.add(column);
+                    if (!type.equals("varbinary")) {
+                        text.add(column);
+                    }
+                }
+                if (!text.isEmpty()) {
+                    stmt.executeUpdate("ALTER TABLE " + table + " " + modifyColumns(text, "VARBINARY(36)"));
+                }
+                for (UuidColumn column : pending) {
+                    // Values already unhexed by an earlier, interrupted run are 16 bytes and left alone
+                    stmt.executeUpdate("UPDATE " + table + " SET " + column.column() + " = " + unhex(column.column())
+                            + " WHERE LENGTH(" + column.column() + ") <> 16");
+                }
+                if (!pending.isEmpty()) {
+                    stmt.executeUpdate("ALTER TABLE " + table + " " + modifyColumns(pending, "BINARY(16)"));
+                }
+                stmt.executeUpdate("INSERT INTO storage_meta (meta_key, meta_value) VALUES ('uuid_format." + table
+                        + "', 'binary') ON DUPLICATE KEY UPDATE meta_value = 'binary'");
+                logger.info("Converted UUID columns of " + table);
+            }
+            List<ForeignKey> remaining = mySqlForeignKeys(conn, tables);
+            for (String table : tables) {
+                boolean referencesGangs = !table.equals("gangs") && !mySqlColumnTypes(conn, table).isEmpty();
+                if (referencesGangs && remaining.stream().noneMatch(key -> key.table().equals(table))) {
+                    stmt.executeUpdate("ALTER TABLE " + table + " ADD CONSTRAINT fk_" + table
+                            + "_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE");
+                }
+            }
+            stmt.executeUpdate("UPDATE storage_meta SET meta_value = 'binary' WHERE meta_key = 'uuid_format'");
+        }
+    }
+
+    /**
+     * @return the foreign keys that exist on {@code tables}, whatever they are called
+     */
+    private static List<ForeignKey> mySqlForeignKeys(Connection conn, List<String> tables) throws SQLException {
+        List<ForeignKey> keys = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT DISTINCT TABLE_NAME, CONSTRAINT_NAME FROM information_schema.KEY_COLUMN_USAGE "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND REFERENCED_TABLE_NAME IS NOT NULL");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                if (tables.contains(rs.getString(1))) {
+                    keys.add(new ForeignKey(rs.getString(1), rs.getString(2)));
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @return the lower-case data type of each column of the table, or an empty map if it does not exist
+     */
+    private static Map<String, String> mySqlColumnTypes(Connection conn, String table) throws SQLException {
+        Map<String, String> types = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT COLUMN_NAME, DATA_TYPE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    types.put(rs.getString(1).toLowerCase(Locale.ROOT), rs.getString(2).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return types;
+    }
+
+    private static boolean isTableConverted(Connection conn, String table) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM storage_meta WHERE meta_key = ? AND meta_value = 'binary'")) {
+            stmt.setString(1, "uuid_format." + table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static String modifyColumns(List<UuidColumn> columns, String type) {
+        List<String> clauses = new ArrayList<>();
+        for (UuidColumn column : columns) {
+            clauses.add("MODIFY " + column.column() + " " + type + " NOT NULL");
+        }
+        return String.join(", ", clauses);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ashank.gangs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One brigadier command run. Covers only the synchronous part; storage work the command
+ * starts shows up as {@link StorageCallEvent}s.
+ */
+@Name("com.ashank.gangs.CommandExecution")
+@Label("Command Execution")
+@Category({"Gangs", "Commands"})
+@StackTrace(false)
+public final class CommandExecutionEvent extends jdk.jfr.Event {
+
+    @Label("Command")
+    @Description("Path through the command tree, with arguments in angle brackets")
+    public String command;
+
+    @Label("Sender")
+    public String sender;
+}
@@ -0,0 +1,24 @@
+package com.ashank.gangs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering one gang chat message and handing it to every online member.
+ */
+@Name("com.ashank.gangs.GangChat")
+@Label("Gang Chat Fan-out")
+@Category({"Gangs", "Chat"})
+@StackTrace(false)
+public final class GangChatEvent extends jdk.jfr.Event {
+
+    @Label("Gang Id")
+    public String gangId;
+
+    @Label("Recipients")
+    @Description("Online members the message was sent to, including the sender")
+    public int recipients;
+}
@@ -0,0 +1,33 @@
+package com.ashank.gangs.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code Storage} call, from the call until its future completed. Committed on the
+ * thread that completed the future.
+ */
+@Name("com.ashank.gangs.StorageCall")
+@Label("Storage Call")
+@Category({"Gangs", "Storage"})
+@Description("A call to the Gangs storage layer")
+@StackTrace(false)
+public final class StorageCallEvent extends jdk.jfr.Event {
+
+    @Label("Layer")
+    @Description("api for calls made by the plugin, backend for calls that reach the database")
+    public String layer;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    @Description("Gangs, members or invites returned, or the affected row count where the method reports one")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
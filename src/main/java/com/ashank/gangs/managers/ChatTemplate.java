@@ -0,0 +1,69 @@
+package com.ashank.gangs.managers;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A MiniMessage format with {@code <player>} and {@code <message>} slots, parsed once.
+ * Rendering fills the slots as plain text and rebuilds only the components on the path to
+ * a slot; everything else is shared with the parsed template.
+ */
+final class ChatTemplate {
+
+    // Wrapped in private-use characters, which cannot appear in player names
+    private static final String PLAYER_SLOT = "\uE000player\uE001";
+    private static final String MESSAGE_SLOT = "\uE000message\uE001";
+
+    private final Component template;
+    private final Set<Component> withSlots = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    ChatTemplate(MiniMessage miniMessage, String format) {
+        this.template = miniMessage.deserialize(format,
+                Placeholder.unparsed("player", PLAYER_SLOT),
+                Placeholder.unparsed("message", MESSAGE_SLOT));
+        markSlots(template);
+    }
+
+    Component render(String player, String message) {
+        return fill(template, player, message);
+    }
+
+    private boolean markSlots(Component component) {
+        boolean hasSlot = component instanceof TextComponent text && text.content().indexOf('\uE000') >= 0;
+        for (Component child : component.children()) {
+            hasSlot |= markSlots(child);
+        }
+        if (hasSlot) {
+            withSlots.add(component);
+        }
+        return hasSlot;
+    }
+
+    private Component fill(Component component, String player, String message) {
+        if (!withSlots.contains(component)) {
+            return component;
+        }
+        Component filled = component;
+        if (component instanceof TextComponent text && text.content().indexOf('\uE000') >= 0) {
+            // The message goes in last so slot markers typed into it are left alone
+            filled = text.content(text.content().replace(PLAYER_SLOT, player).replace(MESSAGE_SLOT, message));
+        }
+        List<Component> children = component.children();
+        if (!children.isEmpty()) {
+            List<Component> filledChildren = new ArrayList<>(children.size());
+            for (Component child : children) {
+                filledChildren.add(fill(child, player, message));
+            }
+            filled = filled.children(filledChildren);
+        }
+        return filled;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ashank.gangs.managers;
+
+import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.Confirmation;
+import com.ashank.gangs.data.GangChangeListener;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pending confirmations for commands such as disband and rename, one per sender. They are
+ * held in memory only and expire on a {@link TimingWheel}; the sender is told when theirs
+ * times out.
+ */
+public class ConfirmationManager implements GangChangeListener {
+
+    // Confirmations from the console are kept under this id
+    private static final UUID CONSOLE = new UUID(0, 0);
+
+    private record Pending(Confirmation confirmation, CommandSender requester, TimingWheel.Timeout timeout) {
+    }
+
+    private final GangsPlugin plugin;
+    private final TimingWheel wheel;
+    private final long timeoutMillis;
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    public ConfirmationManager(GangsPlugin plugin, TimingWheel wheel, long timeoutMillis) {
+        this.plugin = plugin;
+        this.wheel = wheel;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * @return the id confirmations of this sender are stored under
+     */
+    public static UUID senderId(CommandSender sender) {
+        return sender instanceof Player player ? player.getUniqueId() : CONSOLE;
+    }
+
+    /**
+     * Starts the confirmation, replacing any the sender already had pending.
+     */
+    public void request(CommandSender requester, Confirmation confirmation) {
+        TimingWheel.Timeout timeout = wheel.schedule(() -> expire(confirmation), timeoutMillis, TimeUnit.MILLISECONDS);
+        Pending previous = pending.put(confirmation.playerUuid(), new Pending(confirmation, requester, timeout));
+        if (previous != null) {
+            previous.timeout().cancel();
+        }
+    }
+
+    /**
+     * Takes the sender's pending confirmation if its type starts with the given prefix and it
+     * has not expired. A claimed confirmation is gone; it cannot be confirmed twice.
+     */
+    public Optional<Confirmation> claim(UUID senderId, String typePrefix) {
+        Pending current = pending.get(senderId);
+        if (current == null || !current.confirmation().type().startsWith(typePrefix) || !pending.remove(senderId, current)) {
+            return Optional.empty();
+        }
+        current.timeout().cancel();
+        if (System.currentTimeMillis() - current.confirmation().timestamp() >= timeoutMillis) {
+            return Optional.empty();
+        }
+        return Optional.of(current.confirmation());
+    }
+
+    public void clear() {
+        pending.values().forEach(entry -> entry.timeout().cancel());
+        pending.clear();
+    }
+
+    @Override
+    public void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        pending.values().removeIf(entry -> {
+            if (!gangId.equals(entry.confirmation().gangId())) {
+                return false;
+            }
+            entry.timeout().cancel();
+            return true;
+        });
+    }
+
+    private void expire(Confirmation confirmation) {
+        Pending current = pending.get(confirmation.playerUuid());
+        if (current == null || current.confirmation() != confirmation || !pending.remove(confirmation.playerUuid(), current)) {
+            return;
+        }
+        if (current.requester() instanceof Player player && !player.isOnline()) {
+            return;
+        }
+        current.requester().sendMessage(MiniMessage.miniMessage().deserialize(plugin.getMessages().get("confirmation_expired")));
+    }
+}
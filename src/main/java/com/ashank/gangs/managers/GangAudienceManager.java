@@ -2,116 +2,232 @@ package com.ashank.gangs.managers;
 
 import com.ashank.gangs.Gang;
 import com.ashank.gangs.GangsPlugin;
+import com.ashank.gangs.data.ForwardingStorage;
+import com.ashank.gangs.data.GangChangeListener;
+import com.ashank.gangs.data.NotifyingStorage;
+import com.ashank.gangs.jfr.GangChatEvent;
 import com.ashank.gangs.data.Storage;
 import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 /**
  * Manages gang-specific audiences and provides utilities for sending messages
  * to different groups of players based on gang membership.
+ * <p>
+ * Keeps the plugin's one index of online members per gang, updated as players join and quit
+ * and as gang membership changes. Each gang's audience forwards to that live set, so it is
+ * never stale and never rebuilt. Other features read online gangs and counts from here
+ * instead of tracking players themselves.
  */
-public class GangAudienceManager {
+public class GangAudienceManager implements Listener, GangChangeListener {
+
+    /**
+     * Told when a gang gets its first online member and when its last one goes. Called from
+     * whichever thread changed the index, while it is being updated, so it must not block.
+     */
+    public interface OnlineGangListener {
+        void gangOnline(UUID gangId);
+
+        void gangOffline(UUID gangId);
+    }
+
+    /**
+     * Online members of one gang. Held only while at least one member is online.
+     */
+    private static final class OnlineMembers implements ForwardingAudience {
+        private final Set<Player> players = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public Iterable<? extends Audience> audiences() {
+            return players;
+        }
+    }
+
+    // Stands in for "no gang" in onlinePlayers, which cannot hold nulls
+    private static final UUID NO_GANG = new UUID(0, 0);
+
     private final GangsPlugin plugin;
     private final Storage storage;
     private final MiniMessage miniMessage = MiniMessage.miniMessage();
-    
-   
-    private final Map<UUID, Audience> gangAudienceCache = new HashMap<>();
-    private BukkitTask refreshTask;
-    
+
+    private static final CompletableFuture<Boolean> SENT = CompletableFuture.completedFuture(true);
+    private static final CompletableFuture<Boolean> NOT_SENT = CompletableFuture.completedFuture(false);
+    private static final String DEFAULT_CHAT_FORMAT = "<dark_aqua>[Gang] </dark_aqua><aqua><player></aqua><gray>: </gray><message>";
+
+    private final ChatTemplate chatTemplate;
+    private final Component notInGangMessage;
+    private final Map<UUID, OnlineMembers> gangAudiences = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> onlinePlayers = new ConcurrentHashMap<>();
+    private final List<OnlineGangListener> onlineGangListeners = new CopyOnWriteArrayList<>();
+
     public GangAudienceManager(GangsPlugin plugin, Storage storage) {
         this.plugin = plugin;
         this.storage = storage;
-        startRefreshTask();
+        this.chatTemplate = new ChatTemplate(miniMessage, plugin.getMessages().get("gang_chat_format", DEFAULT_CHAT_FORMAT));
+        this.notInGangMessage = miniMessage.deserialize(plugin.getMessages().get("not_in_gang"));
+        ForwardingStorage.find(storage, NotifyingStorage.class).ifPresent(notifying -> notifying.addListener(this));
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        for (Player online : Bukkit.getOnlinePlayers()) {
+            track(online);
+        }
     }
-    
-    /**
-     * Starts a task to periodically refresh the gang audience cache.
-     */
-    private void startRefreshTask() {
-       
-        refreshTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::refreshAudienceCache, 0L, 20L * 60 * 5);
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        track(event.getPlayer());
     }
-    
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        UUID gangId = onlinePlayers.remove(player.getUniqueId());
+        if (gangId != null) {
+            leave(gangId, player);
+        }
+    }
+
+    @Override
+    public void gangCreated(Gang gang) {
+        attach(gang.getLeaderUuid(), gang.getGangId());
+    }
+
+    @Override
+    public void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        OnlineMembers members = gangAudiences.remove(gangId);
+        if (members != null) {
+            for (Player player : members.players) {
+                onlinePlayers.replace(player.getUniqueId(), gangId, NO_GANG);
+            }
+            onlineGangListeners.forEach(listener -> listener.gangOffline(gangId));
+        }
+    }
+
+    @Override
+    public void memberAdded(UUID gangId, UUID playerUuid) {
+        attach(playerUuid, gangId);
+    }
+
+    @Override
+    public void memberRemoved(UUID gangId, UUID playerUuid) {
+        onlinePlayers.computeIfPresent(playerUuid, (uuid, current) -> {
+            if (!current.equals(gangId)) {
+                return current;
+            }
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                leave(gangId, player);
+            }
+            return NO_GANG;
+        });
+    }
+
+    private void track(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        onlinePlayers.put(playerUuid, NO_GANG);
+        storage.getPlayerGangId(playerUuid)
+                .thenAccept(gangId -> gangId.ifPresent(id -> attach(playerUuid, id)))
+                .exceptionally(ex -> {
+                    plugin.getLogger().log(Level.WARNING, "Failed to load gang of " + player.getName() + " for gang chat", ex);
+                    return null;
+                });
+    }
+
     /**
-     * Refreshes the gang audience cache.
+     * Moves an online player into the gang's audience. Does nothing for players who are not
+     * tracked, so a lookup that finishes after they quit is dropped.
      */
-    private void refreshAudienceCache() {
-        gangAudienceCache.clear();
-        storage.getAllGangs().thenAcceptAsync(gangs -> {
-            for (Gang gang : gangs) {
-               
-                Audience audience = createGangAudience(gang);
-                if (audience != Audience.empty()) {
-                    gangAudienceCache.put(gang.getGangId(), audience);
+    private void attach(UUID playerUuid, UUID gangId) {
+        onlinePlayers.computeIfPresent(playerUuid, (uuid, current) -> {
+            if (current.equals(gangId)) {
+                return current;
+            }
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                return current;
+            }
+            if (!current.equals(NO_GANG)) {
+                leave(current, player);
+            }
+            gangAudiences.compute(gangId, (id, members) -> {
+                OnlineMembers joined = members != null ? members : new OnlineMembers();
+                joined.players.add(player);
+                if (members == null) {
+                    onlineGangListeners.forEach(listener -> listener.gangOnline(id));
                 }
+                return joined;
+            });
+            return gangId;
+        });
+    }
+
+    private void leave(UUID gangId, Player player) {
+        gangAudiences.computeIfPresent(gangId, (id, members) -> {
+            members.players.remove(player);
+            if (!members.players.isEmpty()) {
+                return members;
             }
-            plugin.getLogger().info("Gang audience cache refreshed. Cached " + gangAudienceCache.size() + " gangs.");
-        }, plugin.getServer().getScheduler().getMainThreadExecutor(plugin));
+            onlineGangListeners.forEach(listener -> listener.gangOffline(id));
+            return null;
+        });
+    }
+
+    public void addOnlineGangListener(OnlineGangListener listener) {
+        onlineGangListeners.add(listener);
     }
 
     /**
-     * Creates an audience for a specific gang.
-     *
-     * @param gang The gang to create an audience for
-     * @return An audience targeting all online members of the gang
+     * @return the gang of an online player, or {@code null} if they are offline, in no gang or still being looked up
      */
-    private Audience createGangAudience(Gang gang) {
-        Set<UUID> memberUuids = gang.getMemberUuids();
-        Set<? extends Audience> onlineMembers = memberUuids.stream()
-                .map(Bukkit::getPlayer)
-                .filter(p -> p != null && p.isOnline())
-                .collect(Collectors.toSet());
-        
-        if (onlineMembers.isEmpty()) {
-            return Audience.empty();
-        }
-        
-        return Audience.audience(onlineMembers);
+    public UUID getOnlineGangId(UUID playerUuid) {
+        UUID gangId = onlinePlayers.get(playerUuid);
+        return gangId == null || gangId.equals(NO_GANG) ? null : gangId;
     }
-    
+
+    /**
+     * @return whether the gang has a member online
+     */
+    public boolean isGangOnline(UUID gangId) {
+        return gangAudiences.containsKey(gangId);
+    }
+
+    /**
+     * @return how many members of the gang are online
+     */
+    public int getOnlineCount(UUID gangId) {
+        OnlineMembers members = gangAudiences.get(gangId);
+        return members != null ? members.players.size() : 0;
+    }
+
     /**
-     * Gets the audience for a specific gang from cache or creates a new one if not cached.
+     * Gets the audience for a specific gang.
      *
      * @param gangId The UUID of the gang
-     * @return A CompletableFuture that resolves to an Audience for the gang, or empty() if gang not found
+     * @return A CompletableFuture that resolves to an Audience of the gang's online members, or empty() if none are online
      */
     public CompletableFuture<Audience> getGangAudience(UUID gangId) {
-       
-        Audience cachedAudience = gangAudienceCache.get(gangId);
-        if (cachedAudience != null) {
-            return CompletableFuture.completedFuture(cachedAudience);
-        }
-        
-       
-        return storage.getGangById(gangId).thenApply(gangOpt -> {
-            if (gangOpt.isEmpty()) {
-                return Audience.empty();
-            }
-            
-            Gang gang = gangOpt.get();
-            Audience audience = createGangAudience(gang);
-            
-           
-            if (audience != Audience.empty()) {
-                gangAudienceCache.put(gangId, audience);
-            }
-            
-            return audience;
-        });
+        OnlineMembers members = gangAudiences.get(gangId);
+        return CompletableFuture.completedFuture(members != null ? members : Audience.empty());
     }
-    
+
     /**
      * Gets the audience for a player's gang.
      *
@@ -119,6 +235,10 @@ public class GangAudienceManager {
      * @return A CompletableFuture that resolves to an Audience for the player's gang, or empty() if player not in a gang
      */
     public CompletableFuture<Audience> getPlayerGangAudience(UUID playerUuid) {
+        UUID gangId = onlinePlayers.get(playerUuid);
+        if (gangId != null) {
+            return getGangAudience(gangId);
+        }
         return storage.getPlayerGangId(playerUuid).thenCompose(gangIdOpt -> {
             if (gangIdOpt.isEmpty()) {
                 return CompletableFuture.completedFuture(Audience.empty());
@@ -153,40 +273,30 @@ public class GangAudienceManager {
     }
     
     /**
-     * Sends a gang chat message from a player to their gang.
+     * Sends a gang chat message from a player to their gang. The gang and its audience come
+     * from the online member index, so this never waits on storage.
      *
      * @param player The sender
-     * @param message The message content
+     * @param message The message content, shown as plain text
      * @return A CompletableFuture that resolves to true if the message was sent, false otherwise
      */
     public CompletableFuture<Boolean> sendGangChatMessage(Player player, String message) {
-        UUID playerUuid = player.getUniqueId();
-        
-        return storage.getPlayerGangAsync(playerUuid).thenCompose(gangOpt -> {
-            if (gangOpt.isEmpty()) {
-                player.sendMessage(miniMessage.deserialize("<red>You are not in a gang."));
-                return CompletableFuture.completedFuture(false);
-            }
-            
-            Gang gang = gangOpt.get();
-            
-           
-            Component formattedMessage = miniMessage.deserialize(
-                    "<dark_aqua>[Gang] </dark_aqua><aqua>" + player.getName() + "</aqua><gray>: </gray>" + message
-            );
-            
-           
-            return getGangAudience(gang.getGangId()).thenApply(audience -> {
-                if (audience == Audience.empty()) {
-                    player.sendMessage(miniMessage.deserialize("<yellow>No online gang members to receive your message."));
-                    return false;
-                }
-                
-               
-                audience.sendMessage(formattedMessage);
-                return true;
-            });
-        });
+        UUID gangId = onlinePlayers.get(player.getUniqueId());
+        OnlineMembers members = gangId != null ? gangAudiences.get(gangId) : null;
+        if (members == null) {
+            player.sendMessage(notInGangMessage);
+            return NOT_SENT;
+        }
+        GangChatEvent event = new GangChatEvent();
+        event.begin();
+        members.sendMessage(chatTemplate.render(player.getName(), message));
+        event.end();
+        if (event.shouldCommit()) {
+            event.gangId = gangId.toString();
+            event.recipients = members.players.size();
+            event.commit();
+        }
+        return SENT;
     }
     
     /**
@@ -197,31 +307,22 @@ public class GangAudienceManager {
      * @return A CompletableFuture that resolves to the number of gangs that received the message
      */
     public CompletableFuture<Integer> broadcastToAllGangs(String message, String prefix) {
-        return storage.getAllGangs().thenApply(gangs -> {
-            int count = 0;
-            Component formattedMessage = prefix != null
-                    ? miniMessage.deserialize(prefix + " " + message)
-                    : miniMessage.deserialize(message);
-            
-            for (Gang gang : gangs) {
-                Audience audience = gangAudienceCache.getOrDefault(gang.getGangId(), createGangAudience(gang));
-                if (audience != Audience.empty()) {
-                    audience.sendMessage(formattedMessage);
-                    count++;
-                }
-            }
-            
-            return count;
-        });
+        Component formattedMessage = prefix != null
+                ? miniMessage.deserialize(prefix + " " + message)
+                : miniMessage.deserialize(message);
+        int count = 0;
+        for (OnlineMembers members : gangAudiences.values()) {
+            members.sendMessage(formattedMessage);
+            count++;
+        }
+        return CompletableFuture.completedFuture(count);
     }
     
     /**
      * Cleans up resources used by this manager.
      */
     public void shutdown() {
-        if (refreshTask != null && !refreshTask.isCancelled()) {
-            refreshTask.cancel();
-        }
-        gangAudienceCache.clear();
+        gangAudiences.clear();
+        onlinePlayers.clear();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.ashank.gangs.managers;
+
+import com.ashank.gangs.Gang;
+import com.ashank.gangs.data.GangChangeListener;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory index of gang names for tab completion. Names are keyed by their
+ * case-folded form, so a prefix lookup is a range scan costing O(log n + results).
+ */
+public class GangNameIndex implements GangChangeListener {
+
+    private final NavigableMap<String, String> names = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> keysByGang = new ConcurrentHashMap<>();
+    // Gangs changed by an event before load, whose entry in the loaded snapshot may be stale
+    private final Set<UUID> changedBeforeLoad = new HashSet<>();
+    private boolean loaded;
+
+    /**
+     * Adds the given gangs, typically everything in storage at startup. The index listens for
+     * changes before the snapshot is taken, so a gang created, renamed or removed by an event
+     * in between is already up to date and its entry in {@code gangs} is skipped.
+     */
+    public synchronized void load(Collection<Gang> gangs) {
+        for (Gang gang : gangs) {
+            if (!changedBeforeLoad.contains(gang.getGangId())) {
+                put(gang.getGangId(), gang.getName());
+            }
+        }
+        changedBeforeLoad.clear();
+        loaded = true;
+    }
+
+    /**
+     * @return the display names of gangs whose name starts with {@code prefix}, ignoring
+     *         case, in alphabetical order
+     */
+    public Collection<String> withPrefix(String prefix) {
+        String key = Gang.normalizeName(prefix);
+        if (key.isEmpty()) {
+            return names.values();
+        }
+        return names.subMap(key, true, key + Character.MAX_VALUE, false).values();
+    }
+
+    public CompletableFuture<Suggestions> suggest(SuggestionsBuilder builder) {
+        for (String name : withPrefix(builder.getRemaining())) {
+            builder.suggest(name);
+        }
+        return builder.buildFuture();
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public synchronized void gangCreated(Gang gang) {
+        changed(gang.getGangId());
+        put(gang.getGangId(), gang.getName());
+    }
+
+    @Override
+    public synchronized void gangUpdated(Gang gang) {
+        changed(gang.getGangId());
+        put(gang.getGangId(), gang.getName());
+    }
+
+    @Override
+    public synchronized void gangRenamed(UUID gangId, String newName) {
+        changed(gangId);
+        put(gangId, newName);
+    }
+
+    @Override
+    public synchronized void gangRemoved(UUID gangId, Set<UUID> formerMembers) {
+        changed(gangId);
+        String key = keysByGang.remove(gangId);
+        if (key != null) {
+            names.remove(key);
+        }
+    }
+
+    private void changed(UUID gangId) {
+        if (!loaded) {
+            changedBeforeLoad.add(gangId);
+        }
+    }
+
+    private void put(UUID gangId, String name) {
+        String key = Gang.normalizeName(name);
+        String previous = keysByGang.put(gangId, key);
+        if (previous != null && !previous.equals(key)) {
+            names.remove(previous);
+        }
+        names.put(key, name);
+    }
+}
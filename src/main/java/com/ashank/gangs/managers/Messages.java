@@ -28,6 +28,13 @@ public class Messages {
         return messagesConfig.getString(path, "<red>Message not found: " + path);
     }
 
+    /**
+     * @return the message at {@code path}, or {@code fallback} if the file does not define it
+     */
+    public String get(String path, String fallback) {
+        return messagesConfig.getString(path, fallback);
+    }
+
     public String get(String path, Map<String, String> placeholders) {
         String msg = get(path);
         for (Map.Entry<String, String> entry : placeholders.entrySet()) {
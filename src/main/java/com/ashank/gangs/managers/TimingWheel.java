@@ -0,0 +1,234 @@
+package com.ashank.gangs.managers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel for short-lived state such as confirmations and invites. Scheduling
+ * and cancelling are O(1): both only push onto a queue, and a single worker thread moves
+ * entries into buckets and fires those that are due once per tick. Deadlines are therefore
+ * rounded up to the next tick; delays longer than one turn of the wheel wait out the extra
+ * rounds in their bucket.
+ * <p>
+ * Tasks run on the worker thread and must be quick; hand anything slow to another executor.
+ */
+public final class TimingWheel implements AutoCloseable {
+
+    public interface Timeout {
+
+        /**
+         * @return {@code true} if the task had not yet run and now never will
+         */
+        boolean cancel();
+    }
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // Only touched by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                logger.log(Level.WARNING, "Task on " + name + " failed", t);
+            }
+        }
+    }
+
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            if (head == null) {
+                head = tail = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+                tail = entry;
+            }
+        }
+
+        private Entry remove(Entry entry) {
+            Entry next = entry.next;
+            if (entry.prev != null) {
+                entry.prev.next = next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            if (entry == head) {
+                head = next;
+            }
+            if (entry == tail) {
+                tail = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+            return next;
+        }
+
+        private void expire(long deadline) {
+            Entry entry = head;
+            while (entry != null) {
+                if (entry.remainingRounds <= 0) {
+                    Entry next = remove(entry);
+                    if (entry.deadline <= deadline) {
+                        entry.expire();
+                    }
+                    entry = next;
+                } else if (entry.state.get() == CANCELLED) {
+                    entry = remove(entry);
+                } else {
+                    entry.remainingRounds--;
+                    entry = entry.next;
+                }
+            }
+        }
+    }
+
+    // Bounds the work done per tick when a burst of timeouts is scheduled at once
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final String name;
+    private final Logger logger;
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+    private final long startTime = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * @param ticksPerWheel rounded up to a power of two
+     */
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Logger logger) {
+        this.name = name;
+        this.logger = logger;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        int size = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs the task once the delay has passed, at the first tick after it.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Entry entry = new Entry(task, System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime);
+        if (!running) {
+            entry.state.set(CANCELLED);
+            return entry;
+        }
+        pending.add(entry);
+        return entry;
+    }
+
+    /**
+     * Stops the worker. Tasks that have not run yet are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = waitForNextTick();
+            if (!running) {
+                break;
+            }
+            removeCancelled();
+            transferPending();
+            buckets[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+        pending.clear();
+        cancelled.clear();
+    }
+
+    /**
+     * @return the end of the current tick, relative to {@link #startTime}
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (running) {
+            long remaining = deadline - (System.nanoTime() - startTime);
+            if (remaining <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+        return deadline;
+    }
+
+    private void removeCancelled() {
+        Entry entry;
+        while ((entry = cancelled.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Entry entry = pending.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.state.get() == CANCELLED) {
+                continue;
+            }
+            long due = entry.deadline / tickNanos;
+            entry.remainingRounds = (due - tick) / buckets.length;
+            // Already overdue entries go in the current bucket and fire this tick
+            long slot = Math.max(due, tick);
+            buckets[(int) (slot & mask)].add(entry);
+        }
+    }
+}
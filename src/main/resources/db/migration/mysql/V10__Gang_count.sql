@@ -0,0 +1,3 @@
+-- The number of gangs, kept so a listing page does not count the whole table. Recounted
+-- in the same transaction whenever a gang is created or removed.
+INSERT INTO storage_meta (meta_key, meta_value) SELECT 'gang_count', COUNT(*) FROM gangs;
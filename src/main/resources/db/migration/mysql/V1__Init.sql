@@ -0,0 +1,31 @@
+-- Baseline schema. Uses IF NOT EXISTS so databases created before migrations were
+-- introduced are adopted as-is.
+CREATE TABLE IF NOT EXISTS gangs (
+    id CHAR(36) PRIMARY KEY,
+    name VARCHAR(64) NOT NULL UNIQUE,
+    leader_uuid CHAR(36) NOT NULL,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS gang_members (
+    gang_id CHAR(36) NOT NULL,
+    player_uuid CHAR(36) NOT NULL,
+    PRIMARY KEY (gang_id, player_uuid),
+    CONSTRAINT fk_gang_members_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS invites (
+    invited_uuid CHAR(36) PRIMARY KEY,
+    gang_id CHAR(36) NOT NULL,
+    inviter_uuid CHAR(36) NOT NULL,
+    timestamp BIGINT NOT NULL,
+    CONSTRAINT fk_invites_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS confirmations (
+    player_uuid CHAR(36) PRIMARY KEY,
+    type VARCHAR(32) NOT NULL,
+    gang_id CHAR(36),
+    timestamp BIGINT NOT NULL,
+    CONSTRAINT fk_confirmations_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
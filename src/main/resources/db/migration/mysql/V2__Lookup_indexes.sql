@@ -0,0 +1,19 @@
+-- Case-insensitive name lookups go through name_lower so they do not depend on the
+-- column collation.
+-- Names only differing in case were allowed under a case-sensitive collation. One gang
+-- keeps its name; the others get the start of their id appended, so the unique index
+-- can be built.
+UPDATE gangs g JOIN gangs k ON LOWER(k.name) = LOWER(g.name) AND k.id < g.id
+SET g.name = CONCAT(LEFT(g.name, 56), LEFT(g.id, 8));
+ALTER TABLE gangs ADD COLUMN name_lower VARCHAR(64) NULL;
+UPDATE gangs SET name_lower = LOWER(name);
+ALTER TABLE gangs MODIFY name_lower VARCHAR(64) NOT NULL;
+CREATE UNIQUE INDEX idx_gangs_name_lower ON gangs(name_lower);
+
+CREATE INDEX idx_gangs_leader ON gangs(leader_uuid);
+
+-- The primary key starts with gang_id, so player lookups need their own index.
+CREATE INDEX idx_gang_members_player ON gang_members(player_uuid);
+
+CREATE INDEX idx_invites_timestamp ON invites(timestamp);
+CREATE INDEX idx_confirmations_timestamp ON confirmations(timestamp);
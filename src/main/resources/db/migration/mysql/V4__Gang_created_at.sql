@@ -0,0 +1,4 @@
+-- Creation time in epoch milliseconds, used to list gangs by age. Gangs that existed
+-- before this column get 0 and sort first.
+ALTER TABLE gangs ADD COLUMN created_at BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_gangs_created ON gangs(created_at, id);
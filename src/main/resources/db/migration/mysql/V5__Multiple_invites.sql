@@ -0,0 +1,2 @@
+-- A player may hold invites from several gangs at once.
+ALTER TABLE invites DROP PRIMARY KEY, ADD PRIMARY KEY (invited_uuid, gang_id);
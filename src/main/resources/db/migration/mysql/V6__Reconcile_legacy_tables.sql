@@ -0,0 +1,48 @@
+-- Databases created before migrations existed were adopted by V1 without being changed:
+-- gangs had no description column and no unique name, and gang_members had no foreign
+-- key. Each step below checks information_schema first, so tables created by V1 are left
+-- alone. Legacy VARCHAR(36) ids are kept; they compare the same as CHAR(36).
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE gangs ADD COLUMN description TEXT', 'DO 0')
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'gangs' AND COLUMN_NAME = 'description');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Any unique index that covers name alone. V2 already made case-folded names unique, so
+-- adding this cannot fail on duplicates.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE gangs ADD UNIQUE KEY name (name)', 'DO 0')
+            FROM information_schema.STATISTICS s
+            WHERE s.TABLE_SCHEMA = DATABASE() AND s.TABLE_NAME = 'gangs' AND s.COLUMN_NAME = 'name'
+              AND s.NON_UNIQUE = 0
+              AND NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS o
+                              WHERE o.TABLE_SCHEMA = s.TABLE_SCHEMA AND o.TABLE_NAME = s.TABLE_NAME
+                                AND o.INDEX_NAME = s.INDEX_NAME AND o.COLUMN_NAME <> 'name'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Without the foreign key, members of deleted gangs may have been left behind; they would
+-- stop the constraint from being added.
+DELETE FROM gang_members WHERE gang_id NOT IN (SELECT id FROM gangs);
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+                      'ALTER TABLE gang_members ADD CONSTRAINT fk_gang_members_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE',
+                      'DO 0')
+            FROM information_schema.REFERENTIAL_CONSTRAINTS
+            WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'gang_members' AND REFERENCED_TABLE_NAME = 'gangs');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+DELETE FROM invites WHERE gang_id NOT IN (SELECT id FROM gangs);
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+                      'ALTER TABLE invites ADD CONSTRAINT fk_invites_gang FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE',
+                      'DO 0')
+            FROM information_schema.REFERENTIAL_CONSTRAINTS
+            WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'invites' AND REFERENCED_TABLE_NAME = 'gangs');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,5 @@
+-- Member totals kept on the gang row, so listing by size reads an index instead of
+-- grouping every membership. Kept up to date by each membership change.
+ALTER TABLE gangs ADD COLUMN member_count INT NOT NULL DEFAULT 0;
+UPDATE gangs g SET member_count = (SELECT COUNT(*) FROM gang_members m WHERE m.gang_id = g.id);
+CREATE INDEX idx_gangs_size ON gangs(member_count DESC, id);
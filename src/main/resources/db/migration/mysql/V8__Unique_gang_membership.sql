@@ -0,0 +1,10 @@
+-- A player belongs to at most one gang. Until now only the plugin checked this, so two
+-- invites accepted at once could both be stored. Extra memberships are dropped first: a
+-- leader keeps the gang they lead, anyone else the membership with the lowest gang id.
+DELETE m FROM gang_members m
+    JOIN gangs g ON g.leader_uuid = m.player_uuid AND g.id <> m.gang_id;
+DELETE m FROM gang_members m
+    JOIN gang_members k ON k.player_uuid = m.player_uuid AND k.gang_id < m.gang_id;
+UPDATE gangs g SET member_count = (SELECT COUNT(*) FROM gang_members m WHERE m.gang_id = g.id);
+
+ALTER TABLE gang_members DROP INDEX idx_gang_members_player, ADD UNIQUE INDEX idx_gang_members_player (player_uuid);
@@ -0,0 +1,31 @@
+-- Baseline schema. Uses IF NOT EXISTS so databases created before migrations were
+-- introduced are adopted as-is.
+CREATE TABLE IF NOT EXISTS gangs (
+    id TEXT PRIMARY KEY,
+    name TEXT NOT NULL UNIQUE,
+    leader_uuid TEXT NOT NULL,
+    description TEXT
+);
+
+CREATE TABLE IF NOT EXISTS gang_members (
+    gang_id TEXT NOT NULL,
+    player_uuid TEXT NOT NULL,
+    PRIMARY KEY (gang_id, player_uuid),
+    FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS invites (
+    invited_uuid TEXT PRIMARY KEY,
+    gang_id TEXT NOT NULL,
+    inviter_uuid TEXT NOT NULL,
+    timestamp INTEGER NOT NULL,
+    FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS confirmations (
+    player_uuid TEXT PRIMARY KEY,
+    type TEXT NOT NULL,
+    gang_id TEXT,
+    timestamp INTEGER NOT NULL,
+    FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- Case-insensitive name lookups go through name_lower instead of LOWER(name),
+-- which could not use the index on name.
+-- Names only differing in case were allowed until now. The oldest gang keeps its name;
+-- the others get the start of their id appended, so the unique index can be built.
+UPDATE gangs SET name = substr(name, 1, 56) || substr(id, 1, 8)
+WHERE EXISTS (SELECT 1 FROM gangs k
+              WHERE lower(k.name) = lower(gangs.name) AND k.rowid < gangs.rowid);
+ALTER TABLE gangs ADD COLUMN name_lower TEXT;
+UPDATE gangs SET name_lower = lower(name);
+CREATE UNIQUE INDEX idx_gangs_name_lower ON gangs(name_lower);
+
+CREATE INDEX idx_gangs_leader ON gangs(leader_uuid);
+
+-- The primary key starts with gang_id, so player lookups need their own index.
+CREATE INDEX idx_gang_members_player ON gang_members(player_uuid);
+
+CREATE INDEX idx_invites_timestamp ON invites(timestamp);
+CREATE INDEX idx_confirmations_timestamp ON confirmations(timestamp);
@@ -0,0 +1,7 @@
+-- Settings that describe how data is stored, such as the UUID column format.
+CREATE TABLE storage_meta (
+    meta_key VARCHAR(64) NOT NULL PRIMARY KEY,
+    meta_value VARCHAR(255) NOT NULL
+);
+
+INSERT INTO storage_meta (meta_key, meta_value) VALUES ('uuid_format', 'text');
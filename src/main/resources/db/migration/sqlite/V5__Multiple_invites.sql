@@ -0,0 +1,15 @@
+-- A player may hold invites from several gangs at once. SQLite cannot change a primary
+-- key in place, so the table is rebuilt.
+CREATE TABLE invites_new (
+    invited_uuid TEXT NOT NULL,
+    gang_id TEXT NOT NULL,
+    inviter_uuid TEXT NOT NULL,
+    timestamp INTEGER NOT NULL,
+    PRIMARY KEY (invited_uuid, gang_id),
+    FOREIGN KEY (gang_id) REFERENCES gangs(id) ON DELETE CASCADE
+);
+INSERT INTO invites_new (invited_uuid, gang_id, inviter_uuid, timestamp)
+    SELECT invited_uuid, gang_id, inviter_uuid, timestamp FROM invites;
+DROP TABLE invites;
+ALTER TABLE invites_new RENAME TO invites;
+CREATE INDEX idx_invites_timestamp ON invites(timestamp);
@@ -0,0 +1,13 @@
+-- A player belongs to at most one gang. Until now only the plugin checked this. Extra
+-- memberships are dropped first: a leader keeps the gang they lead, anyone else the
+-- membership with the lowest gang id.
+DELETE FROM gang_members
+WHERE EXISTS (SELECT 1 FROM gangs g
+              WHERE g.leader_uuid = gang_members.player_uuid AND g.id <> gang_members.gang_id);
+DELETE FROM gang_members
+WHERE EXISTS (SELECT 1 FROM gang_members k
+              WHERE k.player_uuid = gang_members.player_uuid AND k.gang_id < gang_members.gang_id);
+UPDATE gangs SET member_count = (SELECT COUNT(*) FROM gang_members m WHERE m.gang_id = gangs.id);
+
+DROP INDEX idx_gang_members_player;
+CREATE UNIQUE INDEX idx_gang_members_player ON gang_members(player_uuid);
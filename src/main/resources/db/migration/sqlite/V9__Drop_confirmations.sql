@@ -0,0 +1,3 @@
+-- Confirmations are kept in memory by ConfirmationManager; nothing has read or written
+-- this table since.
+DROP TABLE IF EXISTS confirmations;